@@ -0,0 +1,45 @@
+package chess.benchmarks;
+
+import chess.ChessBoard;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link ChessBoard} setup, hashing and comparison.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ChessBoardBenchmark {
+
+    private ChessBoard board;
+    private ChessBoard copy;
+    private ChessBoard scratch;
+
+    @Setup
+    public void setup() {
+        board = Positions.play(Positions.MIDDLEGAME).getBoard();
+        copy = new ChessBoard(board.getBoard());
+        scratch = new ChessBoard();
+    }
+
+    @Benchmark
+    public ChessBoard resetBoard() {
+        scratch.resetBoard();
+        return scratch;
+    }
+
+    @Benchmark
+    public int hashCodeBoard() {
+        return board.hashCode();
+    }
+
+    @Benchmark
+    public boolean equalsBoard() {
+        return board.equals(copy);
+    }
+}
@@ -0,0 +1,87 @@
+package chess.benchmarks;
+
+import chess.ChessGame;
+import chess.ChessPosition;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The {@link ChessGame} rule queries the server runs after every move, under
+ * each legality strategy.
+ * <p>
+ * A game caches its status until the position, halfmove clock or repetition
+ * count changes, so the rule benchmarks flip the halfmove clock between two
+ * values on every call. That keeps the position the same but forces the
+ * check and mate detection to run each time. The {@code Cached} benchmarks
+ * measure the repeated query that hits the cache.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ChessGameBenchmark {
+
+    @Param({"TRIAL", "LEGAL"})
+    public ChessGame.MoveGeneration moveGeneration;
+
+    private ChessGame middlegame;
+    private ChessGame checkmate;
+    private Collection<ChessPosition> whitePieces;
+
+    @Setup
+    public void setup() {
+        middlegame = Positions.play(Positions.MIDDLEGAME);
+        middlegame.setMoveGeneration(moveGeneration);
+        checkmate = Positions.play(Positions.CHECKMATE);
+        checkmate.setMoveGeneration(moveGeneration);
+        whitePieces = middlegame.getBoard().getPiecePositions(ChessGame.TeamColor.WHITE);
+    }
+
+    @Benchmark
+    public void validMovesAllPieces(Blackhole blackhole) {
+        for(var position : whitePieces){
+            blackhole.consume(middlegame.validMoves(position));
+        }
+    }
+
+    @Benchmark
+    public boolean isInCheck() {
+        invalidateStatus(middlegame);
+        return middlegame.isInCheck(ChessGame.TeamColor.WHITE);
+    }
+
+    @Benchmark
+    public boolean isInCheckmate() {
+        invalidateStatus(checkmate);
+        return checkmate.isInCheckmate(ChessGame.TeamColor.WHITE);
+    }
+
+    @Benchmark
+    public boolean isInStalemate() {
+        invalidateStatus(middlegame);
+        return middlegame.isInStalemate(ChessGame.TeamColor.WHITE);
+    }
+
+    @Benchmark
+    public boolean isInCheckCached() {
+        return middlegame.isInCheck(ChessGame.TeamColor.WHITE);
+    }
+
+    @Benchmark
+    public boolean isInCheckmateCached() {
+        return checkmate.isInCheckmate(ChessGame.TeamColor.WHITE);
+    }
+
+    /**
+     * Changes the halfmove clock, part of the status cache key, without
+     * moving any piece
+     */
+    private static void invalidateStatus(ChessGame game) {
+        game.setHalfmoveClock(game.getHalfmoveClock() ^ 1);
+    }
+}
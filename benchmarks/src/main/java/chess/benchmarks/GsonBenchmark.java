@@ -0,0 +1,45 @@
+package chess.benchmarks;
+
+import chess.ChessGame;
+import com.google.gson.Gson;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Gson serialization of a {@link ChessGame}, as sent to websocket clients
+ * and stored in the database.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class GsonBenchmark {
+
+    private final Gson gson = new Gson();
+    private ChessGame game;
+    private String json;
+
+    @Setup
+    public void setup() {
+        game = Positions.play(Positions.MIDDLEGAME);
+        json = gson.toJson(game);
+    }
+
+    @Benchmark
+    public String toJson() {
+        return gson.toJson(game);
+    }
+
+    @Benchmark
+    public ChessGame fromJson() {
+        return gson.fromJson(json, ChessGame.class);
+    }
+
+    @Benchmark
+    public ChessGame roundTrip() {
+        return gson.fromJson(gson.toJson(game), ChessGame.class);
+    }
+}
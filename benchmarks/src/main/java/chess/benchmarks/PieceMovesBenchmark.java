@@ -0,0 +1,50 @@
+package chess.benchmarks;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPiece;
+import chess.ChessPosition;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link ChessPiece#pieceMoves} for one white piece of each type in a
+ * middlegame position.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PieceMovesBenchmark {
+
+    @Param({"KING", "QUEEN", "BISHOP", "KNIGHT", "ROOK", "PAWN"})
+    public ChessPiece.PieceType type;
+
+    private ChessBoard board;
+    private ChessPiece piece;
+    private ChessPosition position;
+
+    @Setup
+    public void setup() {
+        board = Positions.play(Positions.MIDDLEGAME).getBoard();
+        for(var candidate : board.getPiecePositions(ChessGame.TeamColor.WHITE)){
+            var found = board.getPiece(candidate);
+            if(found.getPieceType() == type){
+                piece = found;
+                position = candidate;
+                return;
+            }
+        }
+        throw new IllegalStateException("No white " + type);
+    }
+
+    @Benchmark
+    public Collection<ChessMove> pieceMoves() {
+        return piece.pieceMoves(board, position);
+    }
+}
@@ -0,0 +1,33 @@
+package chess.benchmarks;
+
+import chess.ChessGame;
+import chess.InvalidMoveException;
+import chess.Move;
+
+/**
+ * Positions shared by the benchmarks, reached by playing moves from the
+ * starting position so they are always legal.
+ */
+final class Positions {
+
+    /** An Italian Game after twelve plies: every piece type still on the board */
+    static final String MIDDLEGAME = "e2e4 e7e5 g1f3 b8c6 f1c4 g8f6 d2d3 f8c5 b1c3 d7d6 c1g5 h7h6";
+
+    /** Fool's mate: white is checkmated */
+    static final String CHECKMATE = "f2f3 e7e5 g2g4 d8h4";
+
+    private Positions() {
+    }
+
+    static ChessGame play(String moves) {
+        var game = new ChessGame();
+        for(var move : moves.split(" ")){
+            try {
+                game.makeMove(Move.toChessMove(Move.parse(move)));
+            } catch (InvalidMoveException e) {
+                throw new IllegalArgumentException("Illegal benchmark move " + move, e);
+            }
+        }
+        return game;
+    }
+}
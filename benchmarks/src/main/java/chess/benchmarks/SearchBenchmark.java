@@ -0,0 +1,52 @@
+package chess.benchmarks;
+
+import chess.ChessGame;
+import chess.engine.ParallelSearch;
+import chess.engine.SearchLimits;
+import chess.engine.SearchResult;
+import chess.engine.TranspositionTable;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A fixed-time {@link ParallelSearch} of the middlegame position, reporting
+ * nodes per second per thread count. Each invocation starts from an empty
+ * transposition table.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Thread)
+public class SearchBenchmark {
+
+    @Param({"1", "2", "4", "8"})
+    public int threads;
+
+    @Param({"PLATFORM", "VIRTUAL"})
+    public ParallelSearch.ThreadKind threadKind;
+
+    private ChessGame middlegame;
+    private ParallelSearch search;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        middlegame = Positions.play(Positions.MIDDLEGAME);
+        search = new ParallelSearch(threads, threadKind, new TranspositionTable(64));
+    }
+
+    @Setup(Level.Invocation)
+    public void clearTable() {
+        search.getTranspositionTable().clear();
+    }
+
+    @Benchmark
+    public SearchResult search500ms(Blackhole blackhole) {
+        var result = search.search(middlegame, SearchLimits.timeMillis(500));
+        blackhole.consume(result.getNodesPerSecond());
+        return result;
+    }
+}
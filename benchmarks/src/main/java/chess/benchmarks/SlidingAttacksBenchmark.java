@@ -0,0 +1,55 @@
+package chess.benchmarks;
+
+import chess.Bitboards;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Magic-bitboard slider lookups against the ray-walking code they replaced,
+ * for every square of a middlegame occupancy.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SlidingAttacksBenchmark {
+
+    private long occupied;
+
+    @Setup
+    public void setup() {
+        occupied = Positions.play(Positions.MIDDLEGAME).getBoard().getOccupied();
+    }
+
+    @Benchmark
+    public void rookMagic(Blackhole blackhole) {
+        for(int sq = 0; sq < 64; sq++){
+            blackhole.consume(Bitboards.rookAttacks(sq, occupied));
+        }
+    }
+
+    @Benchmark
+    public void rookRays(Blackhole blackhole) {
+        for(int sq = 0; sq < 64; sq++){
+            blackhole.consume(Bitboards.rookRayAttacks(sq, occupied));
+        }
+    }
+
+    @Benchmark
+    public void bishopMagic(Blackhole blackhole) {
+        for(int sq = 0; sq < 64; sq++){
+            blackhole.consume(Bitboards.bishopAttacks(sq, occupied));
+        }
+    }
+
+    @Benchmark
+    public void bishopRays(Blackhole blackhole) {
+        for(int sq = 0; sq < 64; sq++){
+            blackhole.consume(Bitboards.bishopRayAttacks(sq, occupied));
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package chess;
+
+/**
+ * Square and bitboard helpers shared by the board and move generation.
+ * <p>
+ * Squares are numbered 0-63 starting at row 1, column 1 (a1) and running
+ * across each row before moving up, so bit {@code n} of a bitboard is the
+ * square at row {@code n / 8 + 1}, column {@code n % 8 + 1}.
+ */
+public final class Bitboards {
+
+    public static final long EMPTY = 0L;
+    public static final long ALL = ~0L;
+
+    private static final long[] KNIGHT_ATTACKS = new long[64];
+    private static final long[] KING_ATTACKS = new long[64];
+    private static final long[][] PAWN_ATTACKS = new long[2][64];
+    private static final long[][] BETWEEN = new long[64][64];
+    private static final long[][] LINE = new long[64][64];
+
+    static {
+        int[][] knightSteps = {{2, 1}, {2, -1}, {-2, 1}, {-2, -1}, {1, 2}, {-1, 2}, {1, -2}, {-1, -2}};
+        int[][] kingSteps = {{1, 0}, {-1, 0}, {0, 1}, {0, -1}, {1, 1}, {-1, 1}, {1, -1}, {-1, -1}};
+        for(int sq = 0; sq < 64; sq++){
+            KNIGHT_ATTACKS[sq] = steps(sq, knightSteps);
+            KING_ATTACKS[sq] = steps(sq, kingSteps);
+            PAWN_ATTACKS[0][sq] = steps(sq, new int[][]{{1, -1}, {1, 1}});
+            PAWN_ATTACKS[1][sq] = steps(sq, new int[][]{{-1, -1}, {-1, 1}});
+            for(int[] dir : kingSteps){
+                long line = ray(sq, dir[0], dir[1]) | ray(sq, -dir[0], -dir[1]) | bit(sq);
+                long between = 0L;
+                int r = row(sq) + dir[0];
+                int c = column(sq) + dir[1];
+                while(inBounds(r, c)){
+                    int target = square(r, c);
+                    BETWEEN[sq][target] = between;
+                    LINE[sq][target] = line;
+                    between |= bit(target);
+                    r += dir[0];
+                    c += dir[1];
+                }
+            }
+        }
+    }
+
+    private Bitboards() {
+    }
+
+    /**
+     * @return the square index for a 1-based row and column
+     */
+    public static int square(int row, int col) {
+        return ((row - 1) << 3) | (col - 1);
+    }
+
+    /**
+     * @return the square index for a position on the board
+     */
+    public static int square(ChessPosition position) {
+        return square(position.getRow(), position.getColumn());
+    }
+
+    /**
+     * @return the 1-based row of a square index
+     */
+    public static int row(int square) {
+        return (square >>> 3) + 1;
+    }
+
+    /**
+     * @return the 1-based column of a square index
+     */
+    public static int column(int square) {
+        return (square & 7) + 1;
+    }
+
+    /**
+     * @return the shared {@link ChessPosition} for a square index
+     */
+    public static ChessPosition position(int square) {
+        return ChessPosition.of(row(square), column(square));
+    }
+
+    public static boolean inBounds(int row, int col) {
+        return row >= 1 && col >= 1 && row <= 8 && col <= 8;
+    }
+
+    /**
+     * @return a bitboard with only the given square set
+     */
+    public static long bit(int square) {
+        return 1L << square;
+    }
+
+    public static boolean contains(long bitboard, int square) {
+        return (bitboard & (1L << square)) != 0;
+    }
+
+    /**
+     * @return the lowest set square of a non-empty bitboard
+     */
+    public static int first(long bitboard) {
+        return Long.numberOfTrailingZeros(bitboard);
+    }
+
+    /**
+     * @return the bitboard with its lowest set square cleared
+     */
+    public static long popFirst(long bitboard) {
+        return bitboard & (bitboard - 1);
+    }
+
+    public static int count(long bitboard) {
+        return Long.bitCount(bitboard);
+    }
+
+    public static long knightAttacks(int square) {
+        return KNIGHT_ATTACKS[square];
+    }
+
+    public static long kingAttacks(int square) {
+        return KING_ATTACKS[square];
+    }
+
+    /**
+     * @return the two diagonal squares a pawn of the given color index
+     * (0 white, 1 black) attacks from a square
+     */
+    public static long pawnAttacks(int colorIndex, int square) {
+        return PAWN_ATTACKS[colorIndex][square];
+    }
+
+    /**
+     * @return the squares strictly between two squares that share a row,
+     * column or diagonal, or an empty bitboard if they are not aligned
+     */
+    public static long between(int from, int to) {
+        return BETWEEN[from][to];
+    }
+
+    /**
+     * @return the full edge-to-edge line through two aligned squares, or an
+     * empty bitboard if they do not share a row, column or diagonal
+     */
+    public static long line(int a, int b) {
+        return LINE[a][b];
+    }
+
+    /**
+     * @return the squares a rook on the given square attacks, including the
+     * first blocker in each direction
+     */
+    public static long rookAttacks(int square, long occupied) {
+        return Magics.rookAttacks(square, occupied);
+    }
+
+    /**
+     * @return the squares a bishop on the given square attacks, including the
+     * first blocker in each direction
+     */
+    public static long bishopAttacks(int square, long occupied) {
+        return Magics.bishopAttacks(square, occupied);
+    }
+
+    public static long queenAttacks(int square, long occupied) {
+        return Magics.rookAttacks(square, occupied) | Magics.bishopAttacks(square, occupied);
+    }
+
+    /**
+     * Rook attacks found by walking each ray square by square. Slower than
+     * {@link #rookAttacks}; kept as the reference the magic tables are built from.
+     */
+    public static long rookRayAttacks(int square, long occupied) {
+        return Magics.rookRayAttacks(square, occupied);
+    }
+
+    /**
+     * Bishop attacks found by walking each ray square by square. Slower than
+     * {@link #bishopAttacks}; kept as the reference the magic tables are built from.
+     */
+    public static long bishopRayAttacks(int square, long occupied) {
+        return Magics.bishopRayAttacks(square, occupied);
+    }
+
+    private static long ray(int square, int dRow, int dCol) {
+        long ray = 0L;
+        int r = row(square) + dRow;
+        int c = column(square) + dCol;
+        while(inBounds(r, c)){
+            ray |= bit(square(r, c));
+            r += dRow;
+            c += dCol;
+        }
+        return ray;
+    }
+
+    private static long steps(int square, int[][] offsets) {
+        long targets = 0L;
+        for(int[] offset : offsets){
+            int r = row(square) + offset[0];
+            int c = column(square) + offset[1];
+            if(inBounds(r, c)){
+                targets |= bit(square(r, c));
+            }
+        }
+        return targets;
+    }
+}
@@ -0,0 +1,216 @@
+package chess;
+
+/**
+ * An immutable, compact copy of a position: the 64 squares packed four bits
+ * each into four longs (32 bytes), plus the side to move and the move clocks.
+ * Earlier moves are not kept, so a restored game cannot take moves back or
+ * count repetitions from before the snapshot.
+ * <p>
+ * A square's nibble is 0 when empty, otherwise its {@link ChessBoard} piece
+ * code plus one. Word {@code i} holds squares {@code 16 * i} to
+ * {@code 16 * i + 15}, lowest square in the lowest bits. Use it to keep many
+ * idle games in memory and turn them back into a live {@link ChessGame} only
+ * when one is needed.
+ */
+public final class BoardSnapshot {
+
+    private static final int SQUARES_PER_WORD = 16;
+    private static final long NIBBLE = 0xFL;
+
+    private final long word0;
+    private final long word1;
+    private final long word2;
+    private final long word3;
+    private final ChessGame.TeamColor turn;
+    private final int halfmoveClock;
+    private final int fullmoveNumber;
+
+    private BoardSnapshot(long word0, long word1, long word2, long word3, ChessGame.TeamColor turn,
+                          int halfmoveClock, int fullmoveNumber) {
+        this.word0 = word0;
+        this.word1 = word1;
+        this.word2 = word2;
+        this.word3 = word3;
+        this.turn = turn;
+        this.halfmoveClock = halfmoveClock;
+        this.fullmoveNumber = fullmoveNumber;
+    }
+
+    /**
+     * @param board the board to copy
+     * @param turn  the team to move
+     * @return a snapshot of the board, with the clocks of a new game
+     */
+    public static BoardSnapshot of(ChessBoard board, ChessGame.TeamColor turn) {
+        return new BoardSnapshot(word(board, 0), word(board, 1), word(board, 2), word(board, 3), turn, 0, 1);
+    }
+
+    /**
+     * Packs one word of a board directly, as {@link #getWord} would return it
+     */
+    static long word(ChessBoard board, int index) {
+        long occupied = board.getOccupied() & (0xFFFFL << (index << 4));
+        long word = 0L;
+        while(occupied != 0){
+            int sq = Bitboards.first(occupied);
+            word |= (long) (board.pieceAt(sq) + 1) << ((sq & 15) << 2);
+            occupied = Bitboards.popFirst(occupied);
+        }
+        return word;
+    }
+
+    /**
+     * @return True if no square of the word holds a nibble that is not a piece
+     */
+    static boolean isValidWord(long word) {
+        for(int i = 0; i < SQUARES_PER_WORD; i++){
+            if(((word >>> (i << 2)) & NIBBLE) > 12){
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Fills the squares of one packed word into a board whose squares there are empty
+     */
+    static void fillWord(ChessBoard board, int index, long word) {
+        while(word != 0){
+            int shift = Long.numberOfTrailingZeros(word) & ~3;
+            board.setSquare((index << 4) + (shift >>> 2), (int) ((word >>> shift) & NIBBLE) - 1);
+            word &= ~(NIBBLE << shift);
+        }
+    }
+
+    /**
+     * @return a snapshot of the game's board, side to move and move clocks
+     */
+    public static BoardSnapshot of(ChessGame game) {
+        var board = game.getBoard();
+        return new BoardSnapshot(word(board, 0), word(board, 1), word(board, 2), word(board, 3), game.getTeamTurn(),
+                game.getHalfmoveClock(), game.getFullmoveNumber());
+    }
+
+    /**
+     * Rebuilds a snapshot from its packed words, as returned by {@link #getWord}
+     *
+     * @throws IllegalArgumentException if a square holds a nibble that is not a piece
+     */
+    public static BoardSnapshot fromWords(long word0, long word1, long word2, long word3,
+                                          ChessGame.TeamColor turn) {
+        return fromWords(word0, word1, word2, word3, turn, 0, 1);
+    }
+
+    /**
+     * Rebuilds a snapshot from its packed words and move clocks
+     *
+     * @throws IllegalArgumentException if a square holds a nibble that is not a piece
+     */
+    public static BoardSnapshot fromWords(long word0, long word1, long word2, long word3,
+                                          ChessGame.TeamColor turn, int halfmoveClock, int fullmoveNumber) {
+        for(long word : new long[]{word0, word1, word2, word3}){
+            if(!isValidWord(word)){
+                throw new IllegalArgumentException("Invalid square nibble in " + Long.toHexString(word));
+            }
+        }
+        return new BoardSnapshot(word0, word1, word2, word3, turn, halfmoveClock, fullmoveNumber);
+    }
+
+    /**
+     * @param index 0 to 3
+     * @return the packed word holding squares {@code 16 * index} to {@code 16 * index + 15}
+     */
+    public long getWord(int index) {
+        return switch(index){
+            case 0 -> word0;
+            case 1 -> word1;
+            case 2 -> word2;
+            case 3 -> word3;
+            default -> throw new IndexOutOfBoundsException(index);
+        };
+    }
+
+    public ChessGame.TeamColor getTeamTurn() {
+        return turn;
+    }
+
+    public int getHalfmoveClock() {
+        return halfmoveClock;
+    }
+
+    public int getFullmoveNumber() {
+        return fullmoveNumber;
+    }
+
+    /**
+     * @return the {@link ChessBoard} piece code on a square, or {@link ChessBoard#EMPTY}
+     */
+    public int pieceAt(int square) {
+        return (int) ((getWord(square >>> 4) >>> ((square & 15) << 2)) & NIBBLE) - 1;
+    }
+
+    public ChessPiece getPiece(ChessPosition position) {
+        int code = pieceAt(Bitboards.square(position));
+        return code == ChessBoard.EMPTY ? null : ChessBoard.pieceFor(code);
+    }
+
+    /**
+     * Replaces the contents of an existing board with this position, so a
+     * board can be reused without allocating
+     */
+    public void copyTo(ChessBoard board) {
+        board.clear();
+        for(int w = 0; w < 4; w++){
+            fillWord(board, w, getWord(w));
+        }
+    }
+
+    /**
+     * @return a new board holding this position
+     */
+    public ChessBoard toBoard() {
+        var board = new ChessBoard();
+        copyTo(board);
+        return board;
+    }
+
+    /**
+     * @return a new game at this position with this side to move and these
+     * clocks, and no moves to take back
+     */
+    public ChessGame toGame() {
+        var game = new ChessGame(toBoard(), turn);
+        game.setHalfmoveClock(halfmoveClock);
+        game.setFullmoveNumber(fullmoveNumber);
+        return game;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if(this == o){
+            return true;
+        }
+        if(o == null || getClass() != o.getClass()){
+            return false;
+        }
+        BoardSnapshot that = (BoardSnapshot) o;
+        return word0 == that.word0 && word1 == that.word1 && word2 == that.word2 && word3 == that.word3
+                && turn == that.turn && halfmoveClock == that.halfmoveClock
+                && fullmoveNumber == that.fullmoveNumber;
+    }
+
+    @Override
+    public int hashCode() {
+        long hash = word0 * 31 + word1;
+        hash = hash * 31 + word2;
+        hash = hash * 31 + word3;
+        return (Long.hashCode(hash) * 31 + turn.ordinal()) * 31 + halfmoveClock;
+    }
+
+    @Override
+    public String toString() {
+        return "BoardSnapshot{turn=" + turn + ", halfmoveClock=" + halfmoveClock + ", fullmoveNumber="
+                + fullmoveNumber + ", squares=" + Long.toHexString(word3) + ':'
+                + Long.toHexString(word2) + ':' + Long.toHexString(word1) + ':' + Long.toHexString(word0) + '}';
+    }
+}
@@ -1,25 +1,122 @@
 package chess;
 
-import java.util.Arrays;
+import com.google.gson.annotations.JsonAdapter;
+
 import java.util.ArrayList;
-import java.util.Objects;
-import java.util.concurrent.ArrayBlockingQueue;
+import java.util.Arrays;
+import java.util.Collection;
 
 /**
  * A chessboard that can hold and rearrange chess pieces.
  * <p>
+ * The board is stored as twelve bitboards, one per color and piece type,
+ * along with per-color and total occupancy masks and a square-indexed
+ * mailbox of piece codes so single-square lookups stay O(1).
+ * <p>
  * Note: You can add to this class, but you may not alter
  * signature of the existing methods.
  */
+@JsonAdapter(ChessBoardAdapter.class)
 public class ChessBoard {
 
-    private ChessPiece[][] board;
+    /** Code stored in the mailbox for an empty square */
+    public static final int EMPTY = -1;
+
+    private static final char[] PIECE_CHARS = new char[12];
+    // b1, d1, ... a2, c2, ...: the squares sharing h1's color
+    private static final long LIGHT_SQUARES = 0x55AA55AA55AA55AAL;
+
+    static {
+        for(var color : ChessGame.TeamColor.values()){
+            for(var type : ChessPiece.PieceType.values()){
+                int code = pieceCode(color, type);
+                char c = switch(type){
+                    case KING -> 'k';
+                    case QUEEN -> 'q';
+                    case BISHOP -> 'b';
+                    case KNIGHT -> 'n';
+                    case ROOK -> 'r';
+                    case PAWN -> 'p';
+                };
+                PIECE_CHARS[code] = color == ChessGame.TeamColor.WHITE ? Character.toUpperCase(c) : c;
+            }
+        }
+    }
+
+    private final long[] pieces = new long[12];
+    private final long[] colors = new long[2];
+    private long occupied;
+    private final byte[] squares = new byte[64];
+    private long zobristKey;
 
     public ChessBoard() {
-        board = new ChessPiece[8][8];
+        Arrays.fill(squares, (byte) EMPTY);
     }
     public ChessBoard(ChessPiece[][] board){
-        this.board = board;
+        this();
+        setBoard(board);
+    }
+
+    /**
+     * Creates an independent copy of another board
+     *
+     * @param other the board to copy
+     */
+    public ChessBoard(ChessBoard other) {
+        copyFrom(other);
+    }
+
+    /**
+     * @return the code used for a piece in the bitboard and mailbox arrays
+     */
+    public static int pieceCode(ChessGame.TeamColor color, ChessPiece.PieceType type) {
+        return color.ordinal() * 6 + type.ordinal();
+    }
+
+    public static int pieceCode(ChessPiece piece) {
+        return pieceCode(piece.getTeamColor(), piece.getPieceType());
+    }
+
+    /**
+     * @return the color index (0 white, 1 black) of a piece code
+     */
+    public static int colorOf(int code) {
+        return code / 6;
+    }
+
+    /**
+     * @return the {@link ChessPiece.PieceType} ordinal of a piece code
+     */
+    public static int typeOf(int code) {
+        return code % 6;
+    }
+
+    /**
+     * @return the shared {@link ChessPiece} for a piece code, or null for EMPTY
+     */
+    public static ChessPiece pieceFor(int code) {
+        return code == EMPTY ? null : ChessPiece.of(code);
+    }
+
+    /**
+     * @return the letter for a piece code, upper case for white, as used by
+     * {@link #toString()} and FEN
+     */
+    static char pieceChar(int code) {
+        return PIECE_CHARS[code];
+    }
+
+    /**
+     * Overwrites this board with the contents of another, without allocating
+     *
+     * @param other the board to copy
+     */
+    public void copyFrom(ChessBoard other) {
+        System.arraycopy(other.pieces, 0, pieces, 0, pieces.length);
+        System.arraycopy(other.colors, 0, colors, 0, colors.length);
+        System.arraycopy(other.squares, 0, squares, 0, squares.length);
+        occupied = other.occupied;
+        zobristKey = other.zobristKey;
     }
 
     /**
@@ -29,7 +126,11 @@ public class ChessBoard {
      * @param piece    the piece to add
      */
     public void addPiece(ChessPosition position, ChessPiece piece) {
-        this.board[position.getRow() - 1][position.getColumn() - 1] = piece;
+        int sq = Bitboards.square(position);
+        clearSquare(sq);
+        if(piece != null){
+            setSquare(sq, pieceCode(piece));
+        }
     }
 
     /**
@@ -40,89 +141,287 @@ public class ChessBoard {
      * position
      */
     public ChessPiece getPiece(ChessPosition position) {
-        return this.board[position.getRow() - 1][position.getColumn() - 1];
+        if(!inBounds(position)){
+            return null;
+        }
+        return pieceFor(squares[Bitboards.square(position)]);
     }
 
     public ChessGame.TeamColor getColor(ChessPosition pos){
-        if(inBounds(pos)){
-            if(getPiece(pos) == null){
-                return null;
-            } else {
-                return getPiece(pos).getTeamColor();
-            }
-        } else {
+        if(!inBounds(pos)){
             return null;
         }
+        long bit = Bitboards.bit(Bitboards.square(pos));
+        if((colors[0] & bit) != 0){
+            return ChessGame.TeamColor.WHITE;
+        } else if((colors[1] & bit) != 0){
+            return ChessGame.TeamColor.BLACK;
+        }
+        return null;
     }
 
     public boolean inBounds(ChessPosition pos){
-        return pos.getRow() >= 1 && pos.getColumn() >= 1 && pos.getRow() <= 8 && pos.getColumn() <= 8;
+        return Bitboards.inBounds(pos.getRow(), pos.getColumn());
+    }
+
+    /**
+     * @return the piece code on a square, or EMPTY
+     */
+    public int pieceAt(int square) {
+        return squares[square];
+    }
+
+    /**
+     * Places a piece code on an empty square, updating every bitboard
+     */
+    public void setSquare(int square, int code) {
+        long bit = Bitboards.bit(square);
+        squares[square] = (byte) code;
+        zobristKey ^= Zobrist.piece(code, square);
+        pieces[code] |= bit;
+        colors[colorOf(code)] |= bit;
+        occupied |= bit;
+    }
+
+    /**
+     * Removes whatever piece is on a square, updating every bitboard
+     *
+     * @return the piece code that was removed, or EMPTY
+     */
+    public int clearSquare(int square) {
+        int code = squares[square];
+        if(code != EMPTY){
+            long bit = Bitboards.bit(square);
+            squares[square] = (byte) EMPTY;
+            zobristKey ^= Zobrist.piece(code, square);
+            pieces[code] &= ~bit;
+            colors[colorOf(code)] &= ~bit;
+            occupied &= ~bit;
+        }
+        return code;
+    }
+
+    /**
+     * @return the Zobrist hash of the pieces on the board, kept current by
+     * every add, remove and move
+     */
+    public long getZobristKey() {
+        return zobristKey;
+    }
+
+    /**
+     * @return the bitboard of squares holding the given piece code
+     */
+    public long getPieces(int code) {
+        return pieces[code];
+    }
+
+    public long getPieces(ChessGame.TeamColor color, ChessPiece.PieceType type) {
+        return pieces[pieceCode(color, type)];
+    }
+
+    /**
+     * @return the bitboard of squares holding pieces of one color
+     */
+    public long getOccupancy(ChessGame.TeamColor color) {
+        return colors[color.ordinal()];
+    }
+
+    public long getOccupancy(int colorIndex) {
+        return colors[colorIndex];
     }
 
+    /**
+     * @return the bitboard of every occupied square
+     */
+    public long getOccupied() {
+        return occupied;
+    }
+
+    /**
+     * @return the position of a team's king, or (0, 0) if it has none
+     */
     public ChessPosition findKing(ChessGame.TeamColor team){
-        for(int r = 1; r <= 8; r++){
-            for(int c = 1; c <= 8; c++){
-                ChessPosition pos = new ChessPosition(r, c);
-                if(getColor(pos) == team){
-                    if(getPiece(pos).getPieceType() == ChessPiece.PieceType.KING){
-                        return pos;
-                    }
-                }
-            }
+        int sq = kingSquare(team.ordinal());
+        return sq < 0 ? new ChessPosition(0, 0) : Bitboards.position(sq);
+    }
+
+    /**
+     * Reads the king's square straight from the king bitboard, which is kept
+     * current by every add, remove and move, so no scan is needed
+     *
+     * @param colorIndex 0 for white, 1 for black
+     * @return the king's square index, or -1 if that team has no king
+     */
+    public int kingSquare(int colorIndex) {
+        long king = pieces[colorIndex * 6 + MoveGenerator.KING];
+        return king == 0 ? -1 : Bitboards.first(king);
+    }
+
+    /**
+     * Lists the squares holding a team's pieces, lowest square first, by
+     * walking its occupancy bitboard rather than every square of the board
+     *
+     * @param team the team whose pieces to list
+     * @return the positions of that team's pieces
+     */
+    public Collection<ChessPosition> getPiecePositions(ChessGame.TeamColor team) {
+        long own = colors[team.ordinal()];
+        Collection<ChessPosition> positions = new ArrayList<>(Bitboards.count(own));
+        while(own != 0){
+            int sq = Bitboards.first(own);
+            positions.add(Bitboards.position(sq));
+            own = Bitboards.popFirst(own);
         }
-        return new ChessPosition(0, 0);
+        return positions;
     }
 
     public boolean kingsAdjacent(){
-        var whitePos = findKing(ChessGame.TeamColor.WHITE);
-        var blackPos = findKing(ChessGame.TeamColor.BLACK);
-        return (Math.abs(whitePos.getRow() - blackPos.getRow()) <= 1 && Math.abs(whitePos.getColumn() - blackPos.getColumn()) <= 1);
+        int whiteKing = kingSquare(ChessGame.TeamColor.WHITE.ordinal());
+        return whiteKing >= 0 && isSquareAttacked(whiteKing, ChessGame.TeamColor.BLACK.ordinal(),
+                ChessPiece.PieceType.KING);
+    }
+
+    /**
+     * Determines if neither side has enough material left to ever give mate:
+     * bare kings, a single knight or bishop, or only bishops that all stand on
+     * squares of one color
+     *
+     * @return True if the position is a dead draw by material
+     */
+    public boolean hasInsufficientMaterial() {
+        long heavy = 0L;
+        long knights = 0L;
+        long bishops = 0L;
+        for(int base = 0; base < 12; base += 6){
+            heavy |= pieces[base + MoveGenerator.QUEEN] | pieces[base + MoveGenerator.ROOK]
+                    | pieces[base + MoveGenerator.PAWN];
+            knights |= pieces[base + MoveGenerator.KNIGHT];
+            bishops |= pieces[base + MoveGenerator.BISHOP];
+        }
+        if(heavy != 0){
+            return false;
+        }
+        if(Bitboards.count(knights | bishops) <= 1){
+            return true;
+        }
+        return knights == 0 && ((bishops & LIGHT_SQUARES) == 0 || (bishops & ~LIGHT_SQUARES) == 0);
+    }
+
+    /**
+     * Determines if any piece of a team attacks a square, by looking outward
+     * from the square along knight, pawn, king and sliding piece patterns
+     *
+     * @param position the square to test
+     * @param byColor  the attacking team
+     * @return True if a piece of byColor could capture on the square
+     */
+    public boolean isSquareAttacked(ChessPosition position, ChessGame.TeamColor byColor) {
+        return inBounds(position) && isSquareAttacked(Bitboards.square(position), byColor.ordinal());
+    }
+
+    /**
+     * @param byColor the attacking color index, 0 white or 1 black
+     */
+    public boolean isSquareAttacked(int square, int byColor) {
+        int base = byColor * 6;
+        if((Bitboards.knightAttacks(square) & pieces[base + MoveGenerator.KNIGHT]) != 0
+                || (Bitboards.kingAttacks(square) & pieces[base + MoveGenerator.KING]) != 0
+                || (Bitboards.pawnAttacks(byColor ^ 1, square) & pieces[base + MoveGenerator.PAWN]) != 0){
+            return true;
+        }
+        long queens = pieces[base + MoveGenerator.QUEEN];
+        long diagonal = pieces[base + MoveGenerator.BISHOP] | queens;
+        long straight = pieces[base + MoveGenerator.ROOK] | queens;
+        return (diagonal != 0 && (Bitboards.bishopAttacks(square, occupied) & diagonal) != 0)
+                || (straight != 0 && (Bitboards.rookAttacks(square, occupied) & straight) != 0);
+    }
+
+    /**
+     * Finds every piece of a team attacking a square, with sliding attacks
+     * computed against the given occupancy rather than the board's own, so
+     * callers can ask "what if this square were empty"
+     *
+     * @param byColor  the attacking color index, 0 white or 1 black
+     * @param occupied the blockers to use for sliding pieces
+     * @return the bitboard of attacking pieces
+     */
+    public long attackersTo(int square, int byColor, long occupied) {
+        int base = byColor * 6;
+        long queens = pieces[base + MoveGenerator.QUEEN];
+        return (Bitboards.knightAttacks(square) & pieces[base + MoveGenerator.KNIGHT])
+                | (Bitboards.kingAttacks(square) & pieces[base + MoveGenerator.KING])
+                | (Bitboards.pawnAttacks(byColor ^ 1, square) & pieces[base + MoveGenerator.PAWN])
+                | (Bitboards.bishopAttacks(square, occupied) & (pieces[base + MoveGenerator.BISHOP] | queens))
+                | (Bitboards.rookAttacks(square, occupied) & (pieces[base + MoveGenerator.ROOK] | queens));
     }
+
+    /**
+     * Determines if a single kind of piece of a team attacks a square
+     */
+    private boolean isSquareAttacked(int square, int byColor, ChessPiece.PieceType type) {
+        long attackers = pieces[byColor * 6 + type.ordinal()];
+        long reach = switch(type){
+            case KING -> Bitboards.kingAttacks(square);
+            case KNIGHT -> Bitboards.knightAttacks(square);
+            case PAWN -> Bitboards.pawnAttacks(byColor ^ 1, square);
+            case BISHOP -> Bitboards.bishopAttacks(square, occupied);
+            case ROOK -> Bitboards.rookAttacks(square, occupied);
+            case QUEEN -> Bitboards.queenAttacks(square, occupied);
+        };
+        return (reach & attackers) != 0;
+    }
+
+    /**
+     * Removes every piece from the board
+     */
+    public void clear() {
+        Arrays.fill(pieces, 0L);
+        Arrays.fill(colors, 0L);
+        occupied = 0L;
+        Arrays.fill(squares, (byte) EMPTY);
+        zobristKey = 0L;
+    }
+
     /**
      * Sets the board to the default starting board
      * (How the game of chess normally starts)
      */
     public void resetBoard() {
-        addPiece(new ChessPosition(1, 1), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.ROOK));
-        addPiece(new ChessPosition(1, 2), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KNIGHT));
-        addPiece(new ChessPosition(1, 3), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.BISHOP));
-        addPiece(new ChessPosition(1, 4), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.QUEEN));
-        addPiece(new ChessPosition(1, 5), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KING));
-        addPiece(new ChessPosition(1, 6), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.BISHOP));
-        addPiece(new ChessPosition(1, 7), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KNIGHT));
-        addPiece(new ChessPosition(1, 8), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.ROOK));
-        addPiece(new ChessPosition(2, 1), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN));
-        addPiece(new ChessPosition(2, 2), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN));
-        addPiece(new ChessPosition(2, 3), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN));
-        addPiece(new ChessPosition(2, 4), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN));
-        addPiece(new ChessPosition(2, 5), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN));
-        addPiece(new ChessPosition(2, 6), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN));
-        addPiece(new ChessPosition(2, 7), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN));
-        addPiece(new ChessPosition(2, 8), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN));
-        addPiece(new ChessPosition(8, 1), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.ROOK));
-        addPiece(new ChessPosition(8, 2), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KNIGHT));
-        addPiece(new ChessPosition(8, 3), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.BISHOP));
-        addPiece(new ChessPosition(8, 4), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.QUEEN));
-        addPiece(new ChessPosition(8, 5), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KING));
-        addPiece(new ChessPosition(8, 6), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.BISHOP));
-        addPiece(new ChessPosition(8, 7), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KNIGHT));
-        addPiece(new ChessPosition(8, 8), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.ROOK));
-        addPiece(new ChessPosition(7, 1), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN));
-        addPiece(new ChessPosition(7, 2), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN));
-        addPiece(new ChessPosition(7, 3), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN));
-        addPiece(new ChessPosition(7, 4), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN));
-        addPiece(new ChessPosition(7, 5), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN));
-        addPiece(new ChessPosition(7, 6), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN));
-        addPiece(new ChessPosition(7, 7), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN));
-        addPiece(new ChessPosition(7, 8), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN));
+        clear();
+        ChessPiece.PieceType[] backRank = {
+                ChessPiece.PieceType.ROOK, ChessPiece.PieceType.KNIGHT, ChessPiece.PieceType.BISHOP,
+                ChessPiece.PieceType.QUEEN, ChessPiece.PieceType.KING, ChessPiece.PieceType.BISHOP,
+                ChessPiece.PieceType.KNIGHT, ChessPiece.PieceType.ROOK
+        };
+        for(int col = 1; col <= 8; col++){
+            setSquare(Bitboards.square(1, col), pieceCode(ChessGame.TeamColor.WHITE, backRank[col - 1]));
+            setSquare(Bitboards.square(2, col), pieceCode(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN));
+            setSquare(Bitboards.square(7, col), pieceCode(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN));
+            setSquare(Bitboards.square(8, col), pieceCode(ChessGame.TeamColor.BLACK, backRank[col - 1]));
+        }
     }
 
+    /**
+     * @return a copy of the board as a [row - 1][column - 1] array of pieces
+     */
     public ChessPiece[][] getBoard() {
+        ChessPiece[][] board = new ChessPiece[8][8];
+        for(int sq = 0; sq < 64; sq++){
+            board[sq >>> 3][sq & 7] = pieceFor(squares[sq]);
+        }
         return board;
     }
 
     public void setBoard(ChessPiece[][] board) {
-        this.board = board;
+        clear();
+        for(int r = 0; r < 8; r++){
+            for(int c = 0; c < 8; c++){
+                if(board[r][c] != null){
+                    setSquare(Bitboards.square(r + 1, c + 1), pieceCode(board[r][c]));
+                }
+            }
+        }
     }
 
     @Override
@@ -131,19 +430,8 @@ public class ChessBoard {
         for(int row = 1; row <= 8; row++){
             boardStr.append("|");
             for(int col = 1; col <= 8; col++){
-                var piece = getPiece(new ChessPosition(row, col));
-                if(piece != null){
-                    switch(piece.getPieceType()){
-                        case ChessPiece.PieceType.KING: boardStr.append(piece.getTeamColor() == ChessGame.TeamColor.WHITE ? "K" : "k"); break;
-                        case ChessPiece.PieceType.QUEEN: boardStr.append(piece.getTeamColor() == ChessGame.TeamColor.WHITE ? "Q" : "q"); break;
-                        case ChessPiece.PieceType.ROOK: boardStr.append(piece.getTeamColor() == ChessGame.TeamColor.WHITE ? "R" : "r"); break;
-                        case ChessPiece.PieceType.BISHOP: boardStr.append(piece.getTeamColor() == ChessGame.TeamColor.WHITE ? "B" : "b"); break;
-                        case ChessPiece.PieceType.KNIGHT: boardStr.append(piece.getTeamColor() == ChessGame.TeamColor.WHITE ? "N" : "n"); break;
-                        case ChessPiece.PieceType.PAWN: boardStr.append(piece.getTeamColor() == ChessGame.TeamColor.WHITE ? "P" : "p"); break;
-                    }
-                } else {
-                    boardStr.append(" ");
-                }
+                int code = squares[Bitboards.square(row, col)];
+                boardStr.append(code == EMPTY ? ' ' : PIECE_CHARS[code]);
                 boardStr.append("|");
             }
             boardStr.append("\n");
@@ -157,11 +445,12 @@ public class ChessBoard {
             return false;
         }
         ChessBoard that = (ChessBoard) o;
-        return Objects.deepEquals(board, that.board);
+        // differing keys settle most comparisons without touching the bitboards
+        return zobristKey == that.zobristKey && Arrays.equals(pieces, that.pieces);
     }
 
     @Override
     public int hashCode() {
-        return Arrays.deepHashCode(board);
+        return Long.hashCode(zobristKey);
     }
 }
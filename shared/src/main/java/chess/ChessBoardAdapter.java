@@ -0,0 +1,108 @@
+package chess;
+
+import com.google.gson.JsonParseException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+
+/**
+ * Writes a {@link ChessBoard} as the piece placement field of a FEN string,
+ * e.g. {@code "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR"}, in place of
+ * the board's bitboards and mailbox.
+ * <p>
+ * Boards stored before this adapter existed were written by reflection as
+ * {@code {"board":[[{"pieceColor":"WHITE","type":"ROOK"},null,...],...]}},
+ * row 1 first. That form is still accepted when reading.
+ */
+public final class ChessBoardAdapter extends TypeAdapter<ChessBoard> {
+
+    @Override
+    public void write(JsonWriter out, ChessBoard board) throws IOException {
+        if(board == null){
+            out.nullValue();
+            return;
+        }
+        var str = new StringBuilder(72);
+        Fen.writePlacement(board, str);
+        out.value(str.toString());
+    }
+
+    @Override
+    public ChessBoard read(JsonReader in) throws IOException {
+        if(in.peek() == JsonToken.NULL){
+            in.nextNull();
+            return null;
+        }
+        if(in.peek() == JsonToken.BEGIN_OBJECT){
+            return readLegacy(in);
+        }
+        var board = new ChessBoard();
+        try {
+            Fen.parsePlacement(in.nextString(), board);
+        } catch(IllegalArgumentException e) {
+            throw new JsonParseException(e.getMessage(), e);
+        }
+        return board;
+    }
+
+    /**
+     * Reads a board in the old reflective object form
+     */
+    private static ChessBoard readLegacy(JsonReader in) throws IOException {
+        var board = new ChessBoard();
+        in.beginObject();
+        while(in.hasNext()){
+            if(!in.nextName().equals("board") || in.peek() == JsonToken.NULL){
+                in.skipValue();
+                continue;
+            }
+            in.beginArray();
+            for(int row = 1; in.hasNext(); row++){
+                in.beginArray();
+                for(int col = 1; in.hasNext(); col++){
+                    var piece = readLegacyPiece(in);
+                    if(piece != null){
+                        if(!Bitboards.inBounds(row, col)){
+                            throw new JsonParseException("Piece off the board at row " + row
+                                    + ", column " + col);
+                        }
+                        board.addPiece(ChessPosition.of(row, col), piece);
+                    }
+                }
+                in.endArray();
+            }
+            in.endArray();
+        }
+        in.endObject();
+        return board;
+    }
+
+    private static ChessPiece readLegacyPiece(JsonReader in) throws IOException {
+        if(in.peek() == JsonToken.NULL){
+            in.nextNull();
+            return null;
+        }
+        ChessGame.TeamColor color = null;
+        ChessPiece.PieceType type = null;
+        in.beginObject();
+        try {
+            while(in.hasNext()){
+                switch(in.nextName()){
+                    case "pieceColor" -> color = ChessGame.TeamColor.valueOf(in.nextString());
+                    case "type" -> type = ChessPiece.PieceType.valueOf(in.nextString());
+                    default -> in.skipValue();
+                }
+            }
+        } catch(IllegalArgumentException e) {
+            throw new JsonParseException(e.getMessage(), e);
+        }
+        in.endObject();
+        if(color == null || type == null){
+            throw new JsonParseException("Piece without a color or type");
+        }
+        return ChessBoard.pieceFor(ChessBoard.pieceCode(color, type));
+    }
+}
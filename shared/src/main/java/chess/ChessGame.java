@@ -1,24 +1,99 @@
 package chess;
 
-import java.util.ArrayList;
+import com.google.gson.annotations.JsonAdapter;
+
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.EnumSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * For a class that can manage a chess game, making moves on a board
  * <p>
+ * Thread safety: the queries {@link #validMoves}, {@link #legalMoves},
+ * {@link #hasAnyLegalMove}, {@link #getStatus}, {@link #isInCheck},
+ * {@link #isInCheckmate}, {@link #isInStalemate}, {@link #getTeamTurn} and
+ * {@link #getZobristKey} never write to the game or its board, so any number
+ * of threads may run them at the same time. Everything that changes the game
+ * ({@link #makeMove}, {@link #unmakeMove}, {@link #setBoard},
+ * {@link #setTeamTurn}, {@link #setMoveGeneration}, or editing the board from
+ * {@link #getBoard}) needs exclusive access: guard a shared game with a
+ * read-write lock, taking the read side for queries. The only state queries
+ * keep is the cached {@link GameStatus}, an immutable object published
+ * through a volatile field, so two readers racing to fill it is harmless.
+ * <p>
  * Note: You can add to this class, but you may not alter
  * signature of the existing methods.
  */
+@JsonAdapter(ChessGameAdapter.class)
 public class ChessGame {
 
+    // Per-thread scratch space, so queries never touch shared mutable state
+    private static final ThreadLocal<MoveList> MOVE_BUFFER = ThreadLocal.withInitial(MoveList::new);
+    private static final ThreadLocal<ChessGame> TRIAL_GAME = ThreadLocal.withInitial(ChessGame::new);
+
     private TeamColor turn;
     private ChessBoard board;
+    private transient MoveGeneration moveGeneration = MoveGeneration.LEGAL;
+
+    private int halfmoveClock;
+    private int fullmoveNumber = 1;
+
+    // History: one packed undo record and the position key from before each
+    // move made with makeMove(int), see pushUndo, plus how often each key occurs
+    private transient long[] undoStack = new long[256];
+    private transient long[] keyHistory = new long[256];
+    private transient int undoSize;
+    private transient RepetitionTable repetitions = new RepetitionTable();
+
+    // Last status worked out for each team, reused while its position still matches
+    private transient volatile GameStatus whiteStatus;
+    private transient volatile GameStatus blackStatus;
 
     public ChessGame() {
         this.setTeamTurn(TeamColor.WHITE);
         this.board = new ChessBoard();
         this.board.resetBoard();
     }
+
+    /**
+     * Creates a game that takes over a board as it is, without building the
+     * starting position first, with no moves to take back
+     *
+     * @param board the board to play on, which the game now owns
+     * @param turn  the team to move
+     */
+    ChessGame(ChessBoard board, TeamColor turn) {
+        this.setTeamTurn(turn);
+        this.board = board;
+    }
+
+    /**
+     * Creates an independent copy of another game, including its board and
+     * the moves that can be taken back with {@link #unmakeMove()}
+     *
+     * @param other the game to copy
+     */
+    public ChessGame(ChessGame other) {
+        this.turn = other.turn;
+        this.board = new ChessBoard(other.board);
+        this.moveGeneration = other.moveGeneration;
+        this.halfmoveClock = other.halfmoveClock;
+        this.fullmoveNumber = other.fullmoveNumber;
+        this.undoStack = Arrays.copyOf(other.undoStack, other.undoStack.length);
+        this.keyHistory = Arrays.copyOf(other.keyHistory, other.keyHistory.length);
+        this.undoSize = other.undoSize;
+        this.repetitions = new RepetitionTable(other.repetitions);
+        this.whiteStatus = other.whiteStatus;
+        this.blackStatus = other.blackStatus;
+    }
     public void p(String s){
         System.out.println(s);
     }
@@ -49,6 +124,35 @@ public class ChessGame {
         BLACK
     }
 
+    /**
+     * The ways this game can decide which moves are legal. Both give the same
+     * answers; they differ only in how the work is done. Neither modifies the
+     * game's own board.
+     */
+    public enum MoveGeneration {
+        /** Play each pseudo-legal move on a per-thread copy of the board, test for check, then take it back */
+        TRIAL,
+        /** Work out checking and pinned pieces once, then emit only legal moves */
+        LEGAL
+    }
+
+    /**
+     * @return how this game currently decides which moves are legal
+     */
+    public MoveGeneration getMoveGeneration() {
+        return moveGeneration;
+    }
+
+    /**
+     * Selects how validMoves, makeMove and the end-of-game checks decide
+     * which moves are legal
+     *
+     * @param moveGeneration the legality strategy to use
+     */
+    public void setMoveGeneration(MoveGeneration moveGeneration) {
+        this.moveGeneration = moveGeneration;
+    }
+
     /**
      * Gets a valid moves for a piece at the given location
      *
@@ -60,21 +164,57 @@ public class ChessGame {
         if(board.getColor(startPosition) == null){
             return null;
         }
-        var piece = board.getPiece(startPosition);
-        var moves = piece.pieceMoves(this.board, startPosition);
-        Collection<ChessMove> newMoves = new ArrayList<>();
-        var team = piece.getTeamColor();
-        for(ChessMove move : moves){
-            board.addPiece(startPosition, null);
-            var deadPiece = board.getPiece(move.getEndPosition());
-            board.addPiece(move.getEndPosition(), piece);
-            if(!this.isInCheck(team) && !board.kingsAdjacent()){
-                newMoves.add(move);
+        var moves = MOVE_BUFFER.get();
+        legalPieceMoves(Bitboards.square(startPosition), moves);
+        return moves.toChessMoves();
+    }
+
+    /**
+     * Fills a list with the legal moves of the piece on a square, using the
+     * selected {@link MoveGeneration}
+     */
+    private void legalPieceMoves(int from, MoveList moves) {
+        if(moveGeneration == MoveGeneration.LEGAL){
+            moves.clear();
+            MoveGenerator.generateLegalPieceMoves(board, from, moves);
+        } else {
+            trialPieceMoves(from, moves);
+        }
+    }
+
+    /**
+     * Tries each pseudo-legal move of the piece on a square with make/unmake
+     * on this thread's scratch copy of the board, keeping those that leave
+     * the mover's king safe
+     */
+    private void trialPieceMoves(int from, MoveList moves) {
+        var trial = TRIAL_GAME.get();
+        trial.board.copyFrom(board);
+        trial.turn = turn;
+        trial.clearHistory();
+        trial.trialMoves(from, moves);
+    }
+
+    private void trialMoves(int from, MoveList moves) {
+        int code = board.pieceAt(from);
+        int enemy = ChessBoard.colorOf(code) ^ 1;
+        boolean kingMoves = ChessBoard.typeOf(code) == MoveGenerator.KING;
+        int kingSquare = kingMoves ? from : board.kingSquare(ChessBoard.colorOf(code));
+        moves.clear();
+        MoveGenerator.generatePieceMoves(board, from, code, moves);
+        if(kingSquare < 0){
+            return;
+        }
+        int legal = 0;
+        for(int i = 0; i < moves.size(); i++){
+            int move = moves.get(i);
+            makeMove(move);
+            if(!board.isSquareAttacked(kingMoves ? Move.to(move) : kingSquare, enemy)){
+                moves.set(legal++, move);
             }
-            board.addPiece(startPosition, piece);
-            board.addPiece(move.getEndPosition(), deadPiece);
+            unmakeMove();
         }
-        return newMoves;
+        moves.truncate(legal);
     }
 
     /**
@@ -84,22 +224,228 @@ public class ChessGame {
      * @throws InvalidMoveException if move is invalid
      */
     public void makeMove(ChessMove move) throws InvalidMoveException {
-        Collection<ChessMove> moves = validMoves(move.getStartPosition());
         if(board.getColor(move.getStartPosition()) != getTeamTurn()){
             throw new InvalidMoveException("Invalid Move");
         }
-        else if(moves.isEmpty()){
+        var moves = MOVE_BUFFER.get();
+        legalPieceMoves(Bitboards.square(move.getStartPosition()), moves);
+        if(moves.isEmpty()){
             throw new InvalidMoveException("Invalid Move");
         }
-        else if(!moves.contains(move)){
+        else if(!board.inBounds(move.getEndPosition()) || !moves.contains(Move.fromChessMove(move))){
             throw new InvalidMoveException("Invalid Move");
         }
         else {
-            var movingPiece = new ChessPiece(getTeamTurn(), move.getPromotionPiece() == null ? board.getPiece(move.getStartPosition()).getPieceType() : move.getPromotionPiece());
-            board.addPiece(move.getStartPosition(), null);
-            board.addPiece(move.getEndPosition(), movingPiece);
-            setTeamTurn(getTeamTurn() == TeamColor.WHITE ? TeamColor.BLACK : TeamColor.WHITE);
+            makeMove(Move.fromChessMove(move));
+        }
+    }
+
+    /**
+     * Applies a packed {@link Move} without checking that it is legal, and
+     * passes the turn to the other team. The move can be taken back with
+     * {@link #unmakeMove()}.
+     *
+     * @param move a packed move whose start square holds a piece
+     */
+    public void makeMove(int move) {
+        long key = getZobristKey();
+        int from = Move.from(move);
+        int to = Move.to(move);
+        int moved = board.clearSquare(from);
+        int captured = board.clearSquare(to);
+        int promotion = Move.promotion(move);
+        board.setSquare(to, promotion < 0 ? moved : ChessBoard.colorOf(moved) * 6 + promotion);
+        pushUndo(move, moved, captured, key);
+        halfmoveClock = captured != ChessBoard.EMPTY || ChessBoard.typeOf(moved) == MoveGenerator.PAWN
+                ? 0 : halfmoveClock + 1;
+        if(turn == TeamColor.BLACK){
+            fullmoveNumber++;
+        }
+        setTeamTurn(getTeamTurn() == TeamColor.WHITE ? TeamColor.BLACK : TeamColor.WHITE);
+    }
+
+    /**
+     * Takes back the last move applied with {@link #makeMove(int)}, restoring
+     * any captured piece, the unpromoted pawn, the turn and the move clocks
+     *
+     * @throws IllegalStateException if there is no move to take back
+     */
+    public void unmakeMove() {
+        if(undoSize == 0){
+            throw new IllegalStateException("No move to unmake");
+        }
+        long record = undoStack[--undoSize];
+        int move = (int) record & 0xFFFF;
+        int moved = (int) (record >>> 16) & 0xF;
+        int captured = ((int) (record >>> 20) & 0xF) - 1;
+        int to = Move.to(move);
+        board.clearSquare(to);
+        board.setSquare(Move.from(move), moved);
+        if(captured != ChessBoard.EMPTY){
+            board.setSquare(to, captured);
+        }
+        setTeamTurn(((record >>> 24) & 1) == 0 ? TeamColor.WHITE : TeamColor.BLACK);
+        if(turn == TeamColor.BLACK){
+            fullmoveNumber--;
+        }
+        halfmoveClock = (int) (record >>> 32);
+        repetitions.remove(keyHistory[undoSize]);
+    }
+
+    /**
+     * @return how many moves can currently be taken back with {@link #unmakeMove()}
+     */
+    public int getUndoDepth() {
+        return undoSize;
+    }
+
+    /**
+     * @param index 0 for the first move that can be taken back, up to {@link #getUndoDepth()} - 1
+     * @return that packed move
+     */
+    int undoMove(int index) {
+        return (int) undoStack[index] & 0xFFFF;
+    }
+
+    /**
+     * @param index as for {@link #undoMove}
+     * @return the key of the position that move was made from
+     */
+    long historyKey(int index) {
+        return keyHistory[index];
+    }
+
+    /**
+     * Moves since the last capture or pawn move, as used by the fifty-move rule
+     *
+     * @return the halfmove clock
+     */
+    public int getHalfmoveClock() {
+        return halfmoveClock;
+    }
+
+    public void setHalfmoveClock(int halfmoveClock) {
+        this.halfmoveClock = halfmoveClock;
+    }
+
+    /**
+     * @return the number of the current full move, starting at 1 and going up after each black move
+     */
+    public int getFullmoveNumber() {
+        return fullmoveNumber;
+    }
+
+    public void setFullmoveNumber(int fullmoveNumber) {
+        this.fullmoveNumber = fullmoveNumber;
+    }
+
+    /**
+     * Counts the current position and every earlier occurrence of it, with
+     * the same side to move, since the board was last set
+     *
+     * @return how many times the current position has occurred, at least 1
+     */
+    public int getRepetitionCount() {
+        return repetitions.count(getZobristKey()) + 1;
+    }
+
+    /**
+     * Overwrites this game with another's position, turn and moves to take
+     * back, reusing this game's board and arrays where they are big enough
+     */
+    void copyFrom(ChessGame other) {
+        turn = other.turn;
+        board.copyFrom(other.board);
+        halfmoveClock = other.halfmoveClock;
+        fullmoveNumber = other.fullmoveNumber;
+        if(undoStack.length < other.undoSize){
+            undoStack = new long[other.undoStack.length];
+            keyHistory = new long[other.keyHistory.length];
+        }
+        System.arraycopy(other.undoStack, 0, undoStack, 0, other.undoSize);
+        System.arraycopy(other.keyHistory, 0, keyHistory, 0, other.undoSize);
+        undoSize = other.undoSize;
+        repetitions.copyFrom(other.repetitions);
+    }
+
+    /**
+     * Forgets every move made so far, making the current position the start of the game's history
+     */
+    private void clearHistory() {
+        undoSize = 0;
+        repetitions.clear();
+        halfmoveClock = 0;
+        fullmoveNumber = 1;
+    }
+
+    /**
+     * Records a move as move | moved piece << 16 | (captured piece + 1) << 20
+     * | mover's color << 24 | halfmove clock before the move << 32, and the
+     * key of the position it was made from
+     */
+    private void pushUndo(int move, int moved, int captured, long key) {
+        if(undoSize == undoStack.length){
+            undoStack = Arrays.copyOf(undoStack, undoSize * 2);
+            keyHistory = Arrays.copyOf(keyHistory, undoSize * 2);
+        }
+        keyHistory[undoSize] = key;
+        undoStack[undoSize++] = move | (moved << 16) | ((captured + 1) << 20) | (turn.ordinal() << 24)
+                | ((long) halfmoveClock << 32);
+        repetitions.add(key);
+    }
+
+    /**
+     * Works out check, checkmate, stalemate and draws for the team to move
+     *
+     * @return the status of the team whose turn it is
+     */
+    public GameStatus getStatus() {
+        return getStatus(turn);
+    }
+
+    /**
+     * Works out check, checkmate, stalemate and draws for a team. The result
+     * is cached per team and reused until the board, halfmove clock or
+     * repetition count changes, so asking
+     * {@link #isInCheck}, {@link #isInCheckmate} and {@link #isInStalemate}
+     * in turn after a move scans the board only once.
+     *
+     * @param teamColor which team to get the status of
+     * @return the team's status in the current position
+     */
+    public GameStatus getStatus(TeamColor teamColor) {
+        long key = board.getZobristKey();
+        int repetitionCount = getRepetitionCount();
+        var status = teamColor == TeamColor.WHITE ? whiteStatus : blackStatus;
+        if(status != null && status.key == key && status.getHalfmoveClock() == halfmoveClock
+                && status.getRepetitionCount() == repetitionCount){
+            return status;
+        }
+        status = computeStatus(teamColor, key, repetitionCount);
+        if(teamColor == TeamColor.WHITE){
+            whiteStatus = status;
+        } else {
+            blackStatus = status;
         }
+        return status;
+    }
+
+    private GameStatus computeStatus(TeamColor teamColor, long key, int repetitionCount) {
+        int kingSquare = board.kingSquare(teamColor.ordinal());
+        boolean inCheck = kingSquare >= 0 && board.isSquareAttacked(kingSquare, teamColor.ordinal() ^ 1);
+        boolean hasLegalMove = hasAnyLegalMove(teamColor);
+        var drawReasons = EnumSet.noneOf(GameStatus.DrawReason.class);
+        if(board.hasInsufficientMaterial()){
+            drawReasons.add(GameStatus.DrawReason.INSUFFICIENT_MATERIAL);
+        }
+        // a move that mates takes precedence over the fifty-move rule
+        if(halfmoveClock >= 100 && !(inCheck && !hasLegalMove)){
+            drawReasons.add(GameStatus.DrawReason.FIFTY_MOVE_RULE);
+        }
+        if(repetitionCount >= 3){
+            drawReasons.add(GameStatus.DrawReason.THREEFOLD_REPETITION);
+        }
+        return new GameStatus(key, teamColor, inCheck, hasLegalMove, halfmoveClock, repetitionCount, drawReasons);
     }
 
     /**
@@ -109,22 +455,7 @@ public class ChessGame {
      * @return True if the specified team is in check
      */
     public boolean isInCheck(TeamColor teamColor) {
-        var kingPos = board.findKing(teamColor);
-        for(int r = 1; r <= 8; r++){
-            for(int c = 1; c <= 8; c++){
-                ChessPosition pos = new ChessPosition(r, c);
-                if(board.getColor(pos) != teamColor && board.getColor(pos) != null){
-                    var piece = board.getPiece(pos);
-                    Collection<ChessMove> moves = piece.pieceMoves(this.board, pos);
-                    for(ChessMove move : moves){
-                        if(move.getEndPosition().equals(kingPos)){
-                            return true;
-                        }
-                    }
-                }
-            }
-        }
-        return false;
+        return getStatus(teamColor).isInCheck();
     }
 
     /**
@@ -134,20 +465,7 @@ public class ChessGame {
      * @return True if the specified team is in checkmate
      */
     public boolean isInCheckmate(TeamColor teamColor) {
-        if(!isInCheck(teamColor)){
-            return false;
-        }
-        for(int r = 1; r <= 8; r++){
-            for(int c = 1; c <= 8; c++){
-                var pos = new ChessPosition(r, c);
-                if(board.getColor(pos) == teamColor){
-                    if(!validMoves(pos).isEmpty()){
-                        return false;
-                    }
-                }
-            }
-        }
-        return true;
+        return getStatus(teamColor).isCheckmate();
     }
 
     /**
@@ -158,29 +476,125 @@ public class ChessGame {
      * @return True if the specified team is in stalemate, otherwise false
      */
     public boolean isInStalemate(TeamColor teamColor) {
-        if(isInCheck(teamColor)){
-            return false;
+        return getStatus(teamColor).isStalemate();
+    }
+
+    /**
+     * Determines if the given team can move at all. Stops at the first legal
+     * move found, trying the king first and then the pieces that can capture
+     * a checking piece, so in most positions only a piece or two is looked at.
+     *
+     * @param teamColor which team to look for a move for
+     * @return True if the team has at least one legal move
+     */
+    public boolean hasAnyLegalMove(TeamColor teamColor) {
+        if(moveGeneration == MoveGeneration.LEGAL){
+            return MoveGenerator.hasLegalMove(board, teamColor.ordinal());
         }
-        for(int r = 1; r <= 8; r++){
-            for(int c = 1; c <= 8; c++){
-                var pos = new ChessPosition(r, c);
-                if(board.getColor(pos) == teamColor){
-                    if(!validMoves(pos).isEmpty()){
-                        return false;
-                    }
+        return legalMoves(teamColor).hasNext();
+    }
+
+    /**
+     * Lazily iterates over a team's legal moves. Moves are generated one
+     * piece at a time as the iterator reaches it, king first, then the
+     * pieces that can capture a checking piece, then the rest, so stopping
+     * early skips the remaining pieces entirely.
+     * <p>
+     * The iterator reads the game as it goes and throws
+     * {@link ConcurrentModificationException} if the position changes
+     * underneath it.
+     *
+     * @param teamColor which team's moves to iterate
+     * @return an iterator over the team's legal moves
+     */
+    public Iterator<ChessMove> legalMoves(TeamColor teamColor) {
+        return new LegalMoveIterator(teamColor.ordinal());
+    }
+
+    /**
+     * @param teamColor which team's moves to stream
+     * @return a lazy sequential stream over the same moves as {@link #legalMoves}
+     */
+    public Stream<ChessMove> legalMoveStream(TeamColor teamColor) {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(legalMoves(teamColor),
+                Spliterator.ORDERED | Spliterator.DISTINCT | Spliterator.NONNULL), false);
+    }
+
+    /**
+     * Walks a team's pieces in the order {@link #legalMoves} promises,
+     * filling its own move list from the next piece whenever it runs dry
+     */
+    private final class LegalMoveIterator implements Iterator<ChessMove> {
+
+        private final long key = getZobristKey();
+        private final MoveList moves = new MoveList();
+        private final long[] stages = new long[3];
+        private int stage;
+        private int index;
+
+        LegalMoveIterator(int color) {
+            long own = board.getOccupancy(color);
+            int king = board.kingSquare(color);
+            if(king >= 0){
+                long checkers = board.attackersTo(king, color ^ 1, board.getOccupied());
+                stages[0] = Bitboards.bit(king);
+                while(checkers != 0){
+                    stages[1] |= board.attackersTo(Bitboards.first(checkers), color, board.getOccupied());
+                    checkers = Bitboards.popFirst(checkers);
                 }
+                stages[1] &= own & ~stages[0];
             }
+            stages[2] = own & ~stages[0] & ~stages[1];
         }
-        return true;
+
+        @Override
+        public boolean hasNext() {
+            if(key != getZobristKey()){
+                throw new ConcurrentModificationException();
+            }
+            while(index == moves.size()){
+                while(stage < stages.length && stages[stage] == 0){
+                    stage++;
+                }
+                if(stage == stages.length){
+                    return false;
+                }
+                legalPieceMoves(Bitboards.first(stages[stage]), moves);
+                stages[stage] = Bitboards.popFirst(stages[stage]);
+                index = 0;
+            }
+            return true;
+        }
+
+        @Override
+        public ChessMove next() {
+            if(!hasNext()){
+                throw new NoSuchElementException();
+            }
+            return Move.toChessMove(moves.get(index++));
+        }
+    }
+
+    /**
+     * Gets the Zobrist hash of the current position: the board's pieces plus
+     * the side to move. It is updated incrementally as moves are made and
+     * taken back, so reading it costs nothing.
+     *
+     * @return the 64-bit position key
+     */
+    public long getZobristKey() {
+        return board.getZobristKey() ^ (turn == TeamColor.BLACK ? Zobrist.BLACK_TO_MOVE : 0L);
     }
 
     /**
-     * Sets this game's chessboard with a given board
+     * Sets this game's chessboard with a given board. The game's history
+     * starts over from this position, with the move clocks reset.
      *
      * @param board the new board to use
      */
     public void setBoard(ChessBoard board) {
         this.board = board;
+        clearHistory();
     }
 
     /**
@@ -191,4 +605,18 @@ public class ChessGame {
     public ChessBoard getBoard() {
         return this.board;
     }
+
+    @Override
+    public boolean equals(Object o) {
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        ChessGame that = (ChessGame) o;
+        return getZobristKey() == that.getZobristKey() && turn == that.turn && Objects.equals(board, that.board);
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(getZobristKey());
+    }
 }
@@ -0,0 +1,71 @@
+package chess;
+
+import com.google.gson.JsonParseException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+
+/**
+ * Writes a {@link ChessGame} as its FEN string, e.g.
+ * {@code "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w - - 0 1"}. The
+ * moves that could be taken back are not written, as before.
+ * <p>
+ * Games stored before this adapter existed were written by reflection as
+ * {@code {"turn":"WHITE","board":{...}}}. That form is still accepted when
+ * reading, with the board in either of the forms {@link ChessBoardAdapter}
+ * reads.
+ */
+public final class ChessGameAdapter extends TypeAdapter<ChessGame> {
+
+    @Override
+    public void write(JsonWriter out, ChessGame game) throws IOException {
+        if(game == null){
+            out.nullValue();
+            return;
+        }
+        out.value(Fen.write(game));
+    }
+
+    @Override
+    public ChessGame read(JsonReader in) throws IOException {
+        if(in.peek() == JsonToken.NULL){
+            in.nextNull();
+            return null;
+        }
+        if(in.peek() == JsonToken.BEGIN_OBJECT){
+            return readLegacy(in);
+        }
+        try {
+            return Fen.parse(in.nextString());
+        } catch(IllegalArgumentException e) {
+            throw new JsonParseException(e.getMessage(), e);
+        }
+    }
+
+    private static ChessGame readLegacy(JsonReader in) throws IOException {
+        var turn = ChessGame.TeamColor.WHITE;
+        ChessBoard board = null;
+        in.beginObject();
+        while(in.hasNext()){
+            switch(in.nextName()){
+                case "turn" -> {
+                    try {
+                        turn = ChessGame.TeamColor.valueOf(in.nextString());
+                    } catch(IllegalArgumentException e) {
+                        throw new JsonParseException(e.getMessage(), e);
+                    }
+                }
+                case "board" -> board = new ChessBoardAdapter().read(in);
+                default -> in.skipValue();
+            }
+        }
+        in.endObject();
+        if(board == null){
+            throw new JsonParseException("Game without a board");
+        }
+        return new ChessGame(board, turn);
+    }
+}
@@ -1,5 +1,7 @@
 package chess;
 
+import com.google.gson.annotations.JsonAdapter;
+
 import java.util.Objects;
 
 /**
@@ -8,10 +10,16 @@ import java.util.Objects;
  * Note: You can add to this class, but you may not alter
  * signature of the existing methods.
  */
+@JsonAdapter(ChessMoveAdapter.class)
 public class ChessMove {
 
-    private ChessPosition startPosition, endPosition;
-    private ChessPiece.PieceType promotionPiece;
+    private static final int PROMOTION_SLOTS = ChessPiece.PieceType.values().length + 1;
+    // Filled lazily; racing threads may each build a move, but any of them is
+    // a complete immutable value, so whichever lands in the slot is fine
+    private static final ChessMove[] MOVES = new ChessMove[64 * 64 * PROMOTION_SLOTS];
+
+    private final ChessPosition startPosition, endPosition;
+    private final ChessPiece.PieceType promotionPiece;
 
     public ChessMove(ChessPosition startPosition, ChessPosition endPosition,
                      ChessPiece.PieceType promotionPiece) {
@@ -20,6 +28,30 @@ public class ChessMove {
         this.promotionPiece = promotionPiece;
     }
 
+    /**
+     * Gets the shared instance for a move between two on-board squares.
+     * Moves are immutable, so each start, end and promotion combination is
+     * created once and reused.
+     *
+     * @return the cached move, or a new one if either position is off the board
+     */
+    public static ChessMove of(ChessPosition startPosition, ChessPosition endPosition,
+                               ChessPiece.PieceType promotionPiece) {
+        if(!Bitboards.inBounds(startPosition.getRow(), startPosition.getColumn())
+                || !Bitboards.inBounds(endPosition.getRow(), endPosition.getColumn())){
+            return new ChessMove(startPosition, endPosition, promotionPiece);
+        }
+        int index = ((Bitboards.square(startPosition) << 6) | Bitboards.square(endPosition)) * PROMOTION_SLOTS
+                + (promotionPiece == null ? 0 : promotionPiece.ordinal() + 1);
+        var move = MOVES[index];
+        if(move == null){
+            move = new ChessMove(ChessPosition.of(startPosition.getRow(), startPosition.getColumn()),
+                    ChessPosition.of(endPosition.getRow(), endPosition.getColumn()), promotionPiece);
+            MOVES[index] = move;
+        }
+        return move;
+    }
+
     /**
      * @return ChessPosition of starting location
      */
@@ -0,0 +1,124 @@
+package chess;
+
+import com.google.gson.JsonParseException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+
+/**
+ * Writes a {@link ChessMove} as a coordinate notation string such as
+ * {@code "e2e4"} or {@code "e7e8q"}.
+ * <p>
+ * A move that leaves the board, or that promotes to a king or a pawn, cannot
+ * be written that way, so it falls back to the object form Gson would produce
+ * by reflection, e.g. {@code {"startPosition":{"row":2,"col":5},...}}. Both forms are accepted
+ * when reading, so clients that still send the object form keep working.
+ */
+public final class ChessMoveAdapter extends TypeAdapter<ChessMove> {
+
+    @Override
+    public void write(JsonWriter out, ChessMove move) throws IOException {
+        if(move == null){
+            out.nullValue();
+        } else if(onBoard(move.getStartPosition()) && onBoard(move.getEndPosition())
+                && hasNotation(move.getPromotionPiece())){
+            out.value(Move.toString(Move.fromChessMove(move)));
+        } else {
+            out.beginObject();
+            writePosition(out.name("startPosition"), move.getStartPosition());
+            writePosition(out.name("endPosition"), move.getEndPosition());
+            if(move.getPromotionPiece() != null){
+                out.name("promotionPiece").value(move.getPromotionPiece().name());
+            }
+            out.endObject();
+        }
+    }
+
+    @Override
+    public ChessMove read(JsonReader in) throws IOException {
+        var token = in.peek();
+        if(token == JsonToken.NULL){
+            in.nextNull();
+            return null;
+        } else if(token == JsonToken.STRING){
+            try {
+                return Move.toChessMove(Move.parse(in.nextString()));
+            } catch(IllegalArgumentException e) {
+                throw new JsonParseException(e.getMessage(), e);
+            }
+        }
+        ChessPosition start = null;
+        ChessPosition end = null;
+        ChessPiece.PieceType promotion = null;
+        in.beginObject();
+        while(in.hasNext()){
+            switch(in.nextName()){
+                case "startPosition" -> start = readPosition(in);
+                case "endPosition" -> end = readPosition(in);
+                case "promotionPiece" -> promotion = readPromotion(in);
+                default -> in.skipValue();
+            }
+        }
+        in.endObject();
+        if(start == null || end == null){
+            return new ChessMove(start, end, promotion);
+        }
+        return ChessMove.of(start, end, promotion);
+    }
+
+    private static boolean onBoard(ChessPosition position) {
+        return position != null && Bitboards.inBounds(position.getRow(), position.getColumn());
+    }
+
+    /**
+     * Coordinate notation only names promotions to a queen, rook, bishop or knight
+     */
+    private static boolean hasNotation(ChessPiece.PieceType promotion) {
+        return promotion != ChessPiece.PieceType.KING && promotion != ChessPiece.PieceType.PAWN;
+    }
+
+    private static void writePosition(JsonWriter out, ChessPosition position) throws IOException {
+        if(position == null){
+            out.nullValue();
+            return;
+        }
+        out.beginObject();
+        out.name("row").value(position.getRow());
+        out.name("col").value(position.getColumn());
+        out.endObject();
+    }
+
+    private static ChessPosition readPosition(JsonReader in) throws IOException {
+        if(in.peek() == JsonToken.NULL){
+            in.nextNull();
+            return null;
+        }
+        int row = 0;
+        int col = 0;
+        in.beginObject();
+        while(in.hasNext()){
+            switch(in.nextName()){
+                case "row" -> row = in.nextInt();
+                case "col" -> col = in.nextInt();
+                default -> in.skipValue();
+            }
+        }
+        in.endObject();
+        return ChessPosition.of(row, col);
+    }
+
+    private static ChessPiece.PieceType readPromotion(JsonReader in) throws IOException {
+        if(in.peek() == JsonToken.NULL){
+            in.nextNull();
+            return null;
+        }
+        try {
+            return ChessPiece.PieceType.valueOf(in.nextString());
+        } catch(IllegalArgumentException e) {
+            throw new JsonParseException(e.getMessage(), e);
+        }
+    }
+}
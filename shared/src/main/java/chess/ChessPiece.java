@@ -1,8 +1,6 @@
 package chess;
 
-import javax.swing.text.Position;
 import java.util.Collection;
-import java.util.ArrayList;
 import java.util.Objects;
 
 /**
@@ -13,8 +11,18 @@ import java.util.Objects;
  */
 public class ChessPiece {
 
-    private ChessGame.TeamColor pieceColor;
-    private ChessPiece.PieceType type;
+    private static final ChessPiece[] PIECES = new ChessPiece[12];
+
+    static {
+        for(var color : ChessGame.TeamColor.values()){
+            for(var type : PieceType.values()){
+                PIECES[color.ordinal() * 6 + type.ordinal()] = new ChessPiece(color, type);
+            }
+        }
+    }
+
+    private final ChessGame.TeamColor pieceColor;
+    private final ChessPiece.PieceType type;
 
 
     public ChessPiece(ChessGame.TeamColor pieceColor, ChessPiece.PieceType type) {
@@ -22,6 +30,23 @@ public class ChessPiece {
         this.type = type;
     }
 
+    /**
+     * Gets the shared instance for a color and type. Pieces are immutable,
+     * so there only ever need to be twelve of them.
+     *
+     * @return the cached piece
+     */
+    public static ChessPiece of(ChessGame.TeamColor pieceColor, ChessPiece.PieceType type) {
+        return PIECES[pieceColor.ordinal() * 6 + type.ordinal()];
+    }
+
+    /**
+     * @return the cached piece for a {@link ChessBoard} piece code
+     */
+    static ChessPiece of(int code) {
+        return PIECES[code];
+    }
+
     /**
      * The various different chess piece options
      */
@@ -56,399 +81,9 @@ public class ChessPiece {
      * @return Collection of valid moves
      */
     public Collection<ChessMove> pieceMoves(ChessBoard board, ChessPosition myPosition) {
-        Collection<ChessMove> moves = new ArrayList<>();
-        int r = myPosition.getRow();
-        int c = myPosition.getColumn();
-        var team = pieceColor;
-        var otherTeam = team == ChessGame.TeamColor.WHITE ? ChessGame.TeamColor.WHITE : ChessGame.TeamColor.BLACK;
-        ChessPosition newPos;
-        int moveC, moveR = 0;
-        switch(this.type){
-            case KING: {
-                newPos = new ChessPosition(r + 1, c);
-                if(board.getColor(newPos) != team && board.inBounds(newPos)){
-                    moves.add(new ChessMove(myPosition, newPos, null));
-                }
-                newPos = new ChessPosition(r - 1, c);
-                if(board.getColor(newPos) != team && board.inBounds(newPos)){
-                    moves.add(new ChessMove(myPosition, newPos, null));
-                }
-                newPos = new ChessPosition(r, c + 1);
-                if(board.getColor(newPos) != team && board.inBounds(newPos)){
-                    moves.add(new ChessMove(myPosition, newPos, null));
-                }
-                newPos = new ChessPosition(r, c - 1);
-                if(board.getColor(newPos) != team && board.inBounds(newPos)){
-                    moves.add(new ChessMove(myPosition, newPos, null));
-                }
-                newPos = new ChessPosition(r + 1, c + 1);
-                if(board.getColor(newPos) != team && board.inBounds(newPos)){
-                    moves.add(new ChessMove(myPosition, newPos, null));
-                }
-                newPos = new ChessPosition(r - 1, c + 1);
-                if(board.getColor(newPos) != team && board.inBounds(newPos)){
-                    moves.add(new ChessMove(myPosition, newPos, null));
-                }
-                newPos = new ChessPosition(r + 1, c - 1);
-                if(board.getColor(newPos) != team && board.inBounds(newPos)){
-                    moves.add(new ChessMove(myPosition, newPos, null));
-                }
-                newPos = new ChessPosition(r - 1, c - 1);
-                if(board.getColor(newPos) != team && board.inBounds(newPos)){
-                    moves.add(new ChessMove(myPosition, newPos, null));
-                }
-            } break;
-            case QUEEN: {
-                // go upleft
-                moveR = 1;
-                moveC = -1;
-                newPos = new ChessPosition(r + moveR, c + moveC);
-                while(board.getColor(newPos) != team && board.inBounds(newPos)){
-                    moves.add(new ChessMove(myPosition, newPos, null));
-                    if(board.getColor(newPos) != null){
-                        break;
-                    }
-                    moveC--;
-                    moveR++;
-                    newPos = new ChessPosition(r + moveR, c + moveC);
-                }
-                // go upright
-                moveR = 1;
-                moveC = 1;
-                newPos = new ChessPosition(r + moveR, c + moveC);
-                while(board.getColor(newPos) != team && board.inBounds(newPos)){
-                    moves.add(new ChessMove(myPosition, newPos, null));
-                    if(board.getColor(newPos) != null){
-                        break;
-                    }
-                    moveC++;
-                    moveR++;
-                    newPos = new ChessPosition(r + moveR, c + moveC);
-                }
-                // go downleft
-                moveR = -1;
-                moveC = -1;
-                newPos = new ChessPosition(r + moveR, c + moveC);
-                while(board.getColor(newPos) != team && board.inBounds(newPos)){
-                    moves.add(new ChessMove(myPosition, newPos, null));
-                    if(board.getColor(newPos) != null){
-                        break;
-                    }
-                    moveC--;
-                    moveR--;
-                    newPos = new ChessPosition(r + moveR, c + moveC);
-                }
-                // go downright
-                moveR = -1;
-                moveC = 1;
-                newPos = new ChessPosition(r + moveR, c + moveC);
-                while(board.getColor(newPos) != team && board.inBounds(newPos)){
-                    moves.add(new ChessMove(myPosition, newPos, null));
-                    if(board.getColor(newPos) != null){
-                        break;
-                    }
-                    moveC++;
-                    moveR--;
-                    newPos = new ChessPosition(r + moveR, c + moveC);
-                }
-                // Go right
-                moveR = 0;
-                moveC = 1;
-                newPos = new ChessPosition(r + moveR, c + moveC);
-                while(board.getColor(newPos) != team && board.inBounds(newPos)){
-                    moves.add(new ChessMove(myPosition, newPos, null));
-                    if(board.getColor(newPos) != null){
-                        break;
-                    }
-                    moveC++;
-                    newPos = new ChessPosition(r + moveR, c + moveC);
-                }
-                // Go left
-                moveR = 0;
-                moveC = -1;
-                newPos = new ChessPosition(r + moveR, c + moveC);
-                while(board.getColor(newPos) != team && board.inBounds(newPos)){
-                    moves.add(new ChessMove(myPosition, newPos, null));
-                    if(board.getColor(newPos) != null){
-                        break;
-                    }
-                    moveC--;
-                    newPos = new ChessPosition(r + moveR, c + moveC);
-                }
-                // Go up
-                moveR = 1;
-                moveC = 0;
-                newPos = new ChessPosition(r + moveR, c + moveC);
-                while(board.getColor(newPos) != team && board.inBounds(newPos)){
-                    moves.add(new ChessMove(myPosition, newPos, null));
-                    if(board.getColor(newPos) != null){
-                        break;
-                    }
-                    moveR++;
-                    newPos = new ChessPosition(r + moveR, c + moveC);
-                }
-                // Go down
-                moveR = -1;
-                moveC = 0;
-                newPos = new ChessPosition(r + moveR, c + moveC);
-                while(board.getColor(newPos) != team && board.inBounds(newPos)){
-                    moves.add(new ChessMove(myPosition, newPos, null));
-                    if(board.getColor(newPos) != null){
-                        break;
-                    }
-                    moveR--;
-                    newPos = new ChessPosition(r + moveR, c + moveC);
-                }
-            } break;
-            case ROOK: {
-                // Go right
-                moveR = 0;
-                moveC = 1;
-                newPos = new ChessPosition(r + moveR, c + moveC);
-                while(board.getColor(newPos) != team && board.inBounds(newPos)){
-                    moves.add(new ChessMove(myPosition, newPos, null));
-                    if(board.getColor(newPos) != null){
-                        break;
-                    }
-                    moveC++;
-                    newPos = new ChessPosition(r + moveR, c + moveC);
-                }
-                // Go left
-                moveR = 0;
-                moveC = -1;
-                newPos = new ChessPosition(r + moveR, c + moveC);
-                while(board.getColor(newPos) != team && board.inBounds(newPos)){
-                    moves.add(new ChessMove(myPosition, newPos, null));
-                    if(board.getColor(newPos) != null){
-                        break;
-                    }
-                    moveC--;
-                    newPos = new ChessPosition(r + moveR, c + moveC);
-                }
-                // Go up
-                moveR = 1;
-                moveC = 0;
-                newPos = new ChessPosition(r + moveR, c + moveC);
-                while(board.getColor(newPos) != team && board.inBounds(newPos)){
-                    moves.add(new ChessMove(myPosition, newPos, null));
-                    if(board.getColor(newPos) != null){
-                        break;
-                    }
-                    moveR++;
-                    newPos = new ChessPosition(r + moveR, c + moveC);
-                }
-                // Go down
-                moveR = -1;
-                moveC = 0;
-                newPos = new ChessPosition(r + moveR, c + moveC);
-                while(board.getColor(newPos) != team && board.inBounds(newPos)){
-                    moves.add(new ChessMove(myPosition, newPos, null));
-                    if(board.getColor(newPos) != null){
-                        break;
-                    }
-                    moveR--;
-                    newPos = new ChessPosition(r + moveR, c + moveC);
-                }
-
-            } break;
-            case BISHOP: {
-                // go upleft
-                moveR = 1;
-                moveC = -1;
-                newPos = new ChessPosition(r + moveR, c + moveC);
-                while(board.getColor(newPos) != team && board.inBounds(newPos)){
-                    moves.add(new ChessMove(myPosition, newPos, null));
-                    if(board.getColor(newPos) != null){
-                        break;
-                    }
-                    moveC--;
-                    moveR++;
-                    newPos = new ChessPosition(r + moveR, c + moveC);
-                }
-                // go upright
-                moveR = 1;
-                moveC = 1;
-                newPos = new ChessPosition(r + moveR, c + moveC);
-                while(board.getColor(newPos) != team && board.inBounds(newPos)){
-                    moves.add(new ChessMove(myPosition, newPos, null));
-                    if(board.getColor(newPos) != null){
-                        break;
-                    }
-                    moveC++;
-                    moveR++;
-                    newPos = new ChessPosition(r + moveR, c + moveC);
-                }
-                // go downleft
-                moveR = -1;
-                moveC = -1;
-                newPos = new ChessPosition(r + moveR, c + moveC);
-                while(board.getColor(newPos) != team && board.inBounds(newPos)){
-                    moves.add(new ChessMove(myPosition, newPos, null));
-                    if(board.getColor(newPos) != null){
-                        break;
-                    }
-                    moveC--;
-                    moveR--;
-                    newPos = new ChessPosition(r + moveR, c + moveC);
-                }
-                // go downright
-                moveR = -1;
-                moveC = 1;
-                newPos = new ChessPosition(r + moveR, c + moveC);
-                while(board.getColor(newPos) != team && board.inBounds(newPos)){
-                    moves.add(new ChessMove(myPosition, newPos, null));
-                    if(board.getColor(newPos) != null){
-                        break;
-                    }
-                    moveC++;
-                    moveR--;
-                    newPos = new ChessPosition(r + moveR, c + moveC);
-                }
-            } break;
-            case KNIGHT: {
-                newPos = new ChessPosition(r + 2, c + 1);
-                if(board.getColor(newPos) != team && board.inBounds(newPos)){
-                    moves.add(new ChessMove(myPosition, newPos, null));
-                }
-                newPos = new ChessPosition(r + 2, c - 1);
-                if(board.getColor(newPos) != team && board.inBounds(newPos)){
-                    moves.add(new ChessMove(myPosition, newPos, null));
-                }
-                newPos = new ChessPosition(r - 2, c + 1);
-                if(board.getColor(newPos) != team && board.inBounds(newPos)){
-                    moves.add(new ChessMove(myPosition, newPos, null));
-                }
-                newPos = new ChessPosition(r - 2, c - 1);
-                if(board.getColor(newPos) != team && board.inBounds(newPos)){
-                    moves.add(new ChessMove(myPosition, newPos, null));
-                }
-                newPos = new ChessPosition(r + 1, c + 2);
-                if(board.getColor(newPos) != team && board.inBounds(newPos)){
-                    moves.add(new ChessMove(myPosition, newPos, null));
-                }
-                newPos = new ChessPosition(r - 1, c + 2);
-                if(board.getColor(newPos) != team && board.inBounds(newPos)){
-                    moves.add(new ChessMove(myPosition, newPos, null));
-                }
-                newPos = new ChessPosition(r + 1, c - 2);
-                if(board.getColor(newPos) != team && board.inBounds(newPos)){
-                    moves.add(new ChessMove(myPosition, newPos, null));
-                }
-                newPos = new ChessPosition(r - 1, c - 2);
-                if(board.getColor(newPos) != team && board.inBounds(newPos)){
-                    moves.add(new ChessMove(myPosition, newPos, null));
-                }
-            } break;
-            case PAWN: {
-                if(this.pieceColor == ChessGame.TeamColor.WHITE){
-                    // Forward 1
-                    newPos = new ChessPosition(r + 1, c);
-                    if(board.getPiece(newPos) == null && board.inBounds(newPos)){
-                        if(r == 7){
-                            // promotion
-                            moves.add(new ChessMove(myPosition, newPos, ChessPiece.PieceType.QUEEN));
-                            moves.add(new ChessMove(myPosition, newPos, ChessPiece.PieceType.ROOK));
-                            moves.add(new ChessMove(myPosition, newPos, ChessPiece.PieceType.BISHOP));
-                            moves.add(new ChessMove(myPosition, newPos, ChessPiece.PieceType.KNIGHT));
-                        } else {
-                            moves.add(new ChessMove(myPosition, newPos, null));
-                        }
-                    }
-                    // Left Diagonal
-                    newPos = new ChessPosition(r + 1, c - 1);
-                    if(board.getColor(newPos) != null && board.inBounds(newPos)){
-                        if(board.getColor(newPos) == ChessGame.TeamColor.BLACK){
-                            if(r == 7){
-                                // promotion
-
-                                moves.add(new ChessMove(myPosition, newPos, PieceType.QUEEN));
-                                moves.add(new ChessMove(myPosition, newPos, PieceType.ROOK));
-                                moves.add(new ChessMove(myPosition, newPos, PieceType.BISHOP));
-                                moves.add(new ChessMove(myPosition, newPos, PieceType.KNIGHT));
-                            } else {
-                                moves.add(new ChessMove(myPosition, newPos, null));
-                            }
-                        }
-                    }
-                    // Right Diagonal
-                    newPos = new ChessPosition(r + 1, c + 1);
-                    if(board.getColor(newPos) != null && board.inBounds(newPos)){
-                        if(board.getColor(newPos) == ChessGame.TeamColor.BLACK){
-                            if(r == 7){
-                                // promotion
-                                moves.add(new ChessMove(myPosition, newPos, PieceType.QUEEN));
-                                moves.add(new ChessMove(myPosition, newPos, PieceType.ROOK));
-                                moves.add(new ChessMove(myPosition, newPos, PieceType.BISHOP));
-                                moves.add(new ChessMove(myPosition, newPos, PieceType.KNIGHT));
-                            } else {
-                                moves.add(new ChessMove(myPosition, newPos, null));
-                            }
-                        }
-                    }
-                    // Forward 2
-                    newPos = new ChessPosition(r + 2, c);
-                    if(r == 2){
-                        if(board.getPiece(new ChessPosition(r + 1, c)) == null && board.getPiece(newPos) == null){
-                            moves.add(new ChessMove(myPosition, newPos, null));
-                        }
-                    }
-                }
-                if(this.pieceColor == ChessGame.TeamColor.BLACK){
-                    // Forward 1
-                    newPos = new ChessPosition(r - 1, c);
-                    if(board.getPiece(newPos) == null && board.inBounds(newPos)){
-                        if(r == 2){
-                            // promotion
-                            moves.add(new ChessMove(myPosition, newPos, PieceType.QUEEN));
-                            moves.add(new ChessMove(myPosition, newPos, PieceType.ROOK));
-                            moves.add(new ChessMove(myPosition, newPos, PieceType.BISHOP));
-                            moves.add(new ChessMove(myPosition, newPos, PieceType.KNIGHT));
-
-                        } else {
-                            moves.add(new ChessMove(myPosition, newPos, null));
-                        }
-                    }
-                    // Left Diagonal
-                    newPos = new ChessPosition(r - 1, c - 1);
-                    if(board.getColor(newPos) != null && board.inBounds(newPos)){
-                        if(board.getColor(newPos) == ChessGame.TeamColor.WHITE){
-                            if(r == 2){
-                                // promotion
-                                moves.add(new ChessMove(myPosition, newPos, PieceType.QUEEN));
-                                moves.add(new ChessMove(myPosition, newPos, PieceType.ROOK));
-                                moves.add(new ChessMove(myPosition, newPos, PieceType.BISHOP));
-                                moves.add(new ChessMove(myPosition, newPos, PieceType.KNIGHT));
-                            } else {
-                                moves.add(new ChessMove(myPosition, newPos, null));
-                            }
-                        }
-                    }
-                    // Right Diagonal
-                    newPos = new ChessPosition(r - 1, c + 1);
-                    if(board.getColor(newPos) != null && board.inBounds(newPos)){
-                        if(board.getColor(newPos) == ChessGame.TeamColor.WHITE){
-                            if(r == 2){
-                                // promotion
-                                moves.add(new ChessMove(myPosition, newPos, PieceType.QUEEN));
-                                moves.add(new ChessMove(myPosition, newPos, PieceType.ROOK));
-                                moves.add(new ChessMove(myPosition, newPos, PieceType.BISHOP));
-                                moves.add(new ChessMove(myPosition, newPos, PieceType.KNIGHT));
-                            } else {
-                                moves.add(new ChessMove(myPosition, newPos, null));
-                            }
-                        }
-                    }
-                    // Forward 2
-                    newPos = new ChessPosition(r - 2, c);
-                    if(r == 7){
-                        if(board.getPiece(new ChessPosition(r - 1, c)) == null && board.getPiece(newPos) == null){
-                            moves.add(new ChessMove(myPosition, newPos, null));
-                        }
-                    }
-                }
-            } break;
-        }
-        return moves;
+        var moves = new MoveList(28);
+        MoveGenerator.generatePieceMoves(board, Bitboards.square(myPosition), ChessBoard.pieceCode(this), moves);
+        return moves.toChessMoves();
     }
 
 
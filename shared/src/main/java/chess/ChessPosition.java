@@ -10,13 +10,34 @@ import java.util.Objects;
  */
 public class ChessPosition {
 
-    private int row, col;
+    private static final ChessPosition[] POSITIONS = new ChessPosition[64];
+
+    static {
+        for(int sq = 0; sq < 64; sq++){
+            POSITIONS[sq] = new ChessPosition((sq >>> 3) + 1, (sq & 7) + 1);
+        }
+    }
+
+    private final int row, col;
 
     public ChessPosition(int row, int col) {
         this.row = row;
         this.col = col;
     }
 
+    /**
+     * Gets the shared instance for a square. Positions are immutable, so the
+     * 64 on-board squares are created once and reused everywhere.
+     *
+     * @return the cached position, or a new one if it is off the board
+     */
+    public static ChessPosition of(int row, int col) {
+        if(row < 1 || col < 1 || row > 8 || col > 8){
+            return new ChessPosition(row, col);
+        }
+        return POSITIONS[((row - 1) << 3) | (col - 1)];
+    }
+
     /**
      * @return which row this position is in
      * 1 codes for the bottom row
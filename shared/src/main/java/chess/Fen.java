@@ -0,0 +1,390 @@
+package chess;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Reads and writes positions in Forsyth-Edwards Notation, e.g. the starting
+ * position {@code rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w - - 0 1}.
+ * <p>
+ * Parsing walks the text once, character by character, straight from a
+ * {@link CharSequence} or the bytes of a {@link ByteBuffer}, and can fill an
+ * existing game so batch jobs need not allocate per position. This engine has
+ * no castling or en passant, so those fields are checked for syntax and then
+ * ignored, and always written as {@code -}. The halfmove clock and fullmove
+ * number are optional when reading and default to {@code 0 1}.
+ */
+public final class Fen {
+
+    public static final String START = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w - - 0 1";
+
+    private Fen() {
+    }
+
+    /**
+     * @return a new game at the position described
+     * @throws IllegalArgumentException if the text is not valid FEN
+     */
+    public static ChessGame parse(CharSequence fen) {
+        var game = new ChessGame();
+        parse(fen, game);
+        return game;
+    }
+
+    /**
+     * Sets up an existing game at the position described, reusing its board.
+     * The game's history starts over from this position.
+     *
+     * @throws IllegalArgumentException if the text is not valid FEN; the game
+     *                                  is left in an unspecified position
+     */
+    public static void parse(CharSequence fen, ChessGame game) {
+        new Parser(fen, 0, fen.length()).parse(game);
+    }
+
+    /**
+     * Reads one FEN record from a buffer of ASCII text, starting at its
+     * position and stopping at the end of the line or the buffer. The
+     * position is left just past the record and its line break.
+     *
+     * @throws IllegalArgumentException if the text is not valid FEN
+     */
+    public static void parse(ByteBuffer buffer, ChessGame game) {
+        var text = new AsciiChars(buffer);
+        int start = buffer.position();
+        int end = start;
+        while(end < buffer.limit() && text.charAt(end) != '\n'){
+            end++;
+        }
+        int recordEnd = end > start && text.charAt(end - 1) == '\r' ? end - 1 : end;
+        new Parser(text, start, recordEnd).parse(game);
+        buffer.position(Math.min(end + 1, buffer.limit()));
+    }
+
+    public static ChessGame parse(ByteBuffer buffer) {
+        var game = new ChessGame();
+        parse(buffer, game);
+        return game;
+    }
+
+    /**
+     * @return the game's position as FEN
+     */
+    public static String write(ChessGame game) {
+        var str = new StringBuilder(90);
+        write(game, str);
+        return str.toString();
+    }
+
+    public static void write(ChessGame game, StringBuilder out) {
+        writePlacement(game.getBoard(), out);
+        out.append(game.getTeamTurn() == ChessGame.TeamColor.WHITE ? " w" : " b").append(" - - ")
+                .append(game.getHalfmoveClock()).append(' ').append(game.getFullmoveNumber());
+    }
+
+    /**
+     * Appends only the piece placement field, e.g. {@code 8/8/8/4k3/8/8/8/4K3}
+     */
+    public static void writePlacement(ChessBoard board, StringBuilder out) {
+        for(int row = 8; row >= 1; row--){
+            int empty = 0;
+            for(int col = 1; col <= 8; col++){
+                int code = board.pieceAt(Bitboards.square(row, col));
+                if(code == ChessBoard.EMPTY){
+                    empty++;
+                    continue;
+                }
+                if(empty > 0){
+                    out.append((char) ('0' + empty));
+                    empty = 0;
+                }
+                out.append(ChessBoard.pieceChar(code));
+            }
+            if(empty > 0){
+                out.append((char) ('0' + empty));
+            }
+            if(row > 1){
+                out.append('/');
+            }
+        }
+    }
+
+    /**
+     * Replaces the contents of a board with a piece placement field and nothing else
+     *
+     * @throws IllegalArgumentException if the text is not a valid placement
+     */
+    public static void parsePlacement(CharSequence placement, ChessBoard board) {
+        var parser = new Parser(placement, 0, placement.length());
+        board.clear();
+        parser.parsePlacement(board);
+        parser.expectEnd();
+    }
+
+    /**
+     * Writes the game's position as ASCII FEN at the buffer's position
+     *
+     * @throws java.nio.BufferOverflowException if the buffer runs out of room
+     */
+    public static void write(ChessGame game, ByteBuffer buffer) {
+        var board = game.getBoard();
+        for(int row = 8; row >= 1; row--){
+            int empty = 0;
+            for(int col = 1; col <= 8; col++){
+                int code = board.pieceAt(Bitboards.square(row, col));
+                if(code == ChessBoard.EMPTY){
+                    empty++;
+                    continue;
+                }
+                if(empty > 0){
+                    buffer.put((byte) ('0' + empty));
+                    empty = 0;
+                }
+                buffer.put((byte) ChessBoard.pieceChar(code));
+            }
+            if(empty > 0){
+                buffer.put((byte) ('0' + empty));
+            }
+            if(row > 1){
+                buffer.put((byte) '/');
+            }
+        }
+        buffer.put((byte) ' ').put((byte) (game.getTeamTurn() == ChessGame.TeamColor.WHITE ? 'w' : 'b'))
+                .put((byte) ' ').put((byte) '-').put((byte) ' ').put((byte) '-').put((byte) ' ');
+        putNumber(game.getHalfmoveClock(), buffer);
+        buffer.put((byte) ' ');
+        putNumber(game.getFullmoveNumber(), buffer);
+    }
+
+    /**
+     * Writes a non-negative number in ASCII digits without building a string
+     */
+    private static void putNumber(int value, ByteBuffer buffer) {
+        int divisor = 1;
+        while(divisor <= value / 10){
+            divisor *= 10;
+        }
+        for(; divisor > 0; divisor /= 10){
+            buffer.put((byte) ('0' + value / divisor % 10));
+        }
+    }
+
+    /**
+     * @return the piece code for a FEN letter, or {@link ChessBoard#EMPTY} if it is not one
+     */
+    private static int pieceCode(char c) {
+        int color = Character.isUpperCase(c) ? 0 : 1;
+        int type = switch(Character.toLowerCase(c)){
+            case 'k' -> MoveGenerator.KING;
+            case 'q' -> MoveGenerator.QUEEN;
+            case 'b' -> MoveGenerator.BISHOP;
+            case 'n' -> MoveGenerator.KNIGHT;
+            case 'r' -> MoveGenerator.ROOK;
+            case 'p' -> MoveGenerator.PAWN;
+            default -> -1;
+        };
+        return type < 0 ? ChessBoard.EMPTY : color * 6 + type;
+    }
+
+    /**
+     * A single pass over {@code text[index, end)}
+     */
+    private static final class Parser {
+
+        private final CharSequence text;
+        private final int start;
+        private final int end;
+        private int index;
+
+        Parser(CharSequence text, int start, int end) {
+            this.text = text;
+            this.start = start;
+            this.index = start;
+            this.end = end;
+        }
+
+        void parse(ChessGame game) {
+            skipSpaces();
+            var board = game.getBoard();
+            board.clear();
+            parsePlacement(board);
+            expectSpace();
+            char side = next();
+            if(side != 'w' && side != 'b'){
+                throw error("Expected side to move 'w' or 'b'");
+            }
+            int halfmoveClock = 0;
+            int fullmoveNumber = 1;
+            if(skipSpaces()){
+                parseCastling();
+                if(skipSpaces()){
+                    parseEnPassant();
+                    if(skipSpaces()){
+                        halfmoveClock = parseNumber();
+                        expectSpace();
+                        fullmoveNumber = parseNumber();
+                        if(fullmoveNumber == 0){
+                            throw error("Fullmove number must start at 1");
+                        }
+                        skipSpaces();
+                    }
+                }
+            }
+            expectEnd();
+            game.setBoard(board);
+            game.setTeamTurn(side == 'w' ? ChessGame.TeamColor.WHITE : ChessGame.TeamColor.BLACK);
+            game.setHalfmoveClock(halfmoveClock);
+            game.setFullmoveNumber(fullmoveNumber);
+        }
+
+        void expectEnd() {
+            if(index != end){
+                throw error("Unexpected text");
+            }
+        }
+
+        void parsePlacement(ChessBoard board) {
+            int row = 8;
+            int col = 1;
+            while(true){
+                char c = next();
+                if(c >= '1' && c <= '8'){
+                    col += c - '0';
+                } else if(c == '/'){
+                    if(col != 9 || row == 1){
+                        throw error("Misplaced '/'");
+                    }
+                    row--;
+                    col = 1;
+                    continue;
+                } else {
+                    int code = pieceCode(c);
+                    if(code == ChessBoard.EMPTY){
+                        throw error("Unexpected '" + c + "' in piece placement");
+                    }
+                    if(col <= 8){
+                        board.setSquare(Bitboards.square(row, col), code);
+                    }
+                    col++;
+                }
+                if(col > 9){
+                    throw error("Too many squares in row " + row);
+                }
+                if(row == 1 && col == 9){
+                    return;
+                }
+            }
+        }
+
+        private void parseCastling() {
+            if(peek() == '-'){
+                index++;
+                return;
+            }
+            int count = 0;
+            while(index < end && "KQkq".indexOf(text.charAt(index)) >= 0){
+                index++;
+                count++;
+            }
+            if(count == 0){
+                throw error("Expected castling rights");
+            }
+        }
+
+        private void parseEnPassant() {
+            if(peek() == '-'){
+                index++;
+                return;
+            }
+            char file = next();
+            char rank = next();
+            if(file < 'a' || file > 'h' || (rank != '3' && rank != '6')){
+                throw error("Expected en passant square");
+            }
+        }
+
+        private int parseNumber() {
+            int digits = 0;
+            int value = 0;
+            while(index < end && text.charAt(index) >= '0' && text.charAt(index) <= '9'){
+                value = value * 10 + (text.charAt(index++) - '0');
+                if(++digits > 6){
+                    throw error("Number too large");
+                }
+            }
+            if(digits == 0){
+                throw error("Expected a number");
+            }
+            return value;
+        }
+
+        /**
+         * @return True if at least one space was skipped and text remains
+         */
+        private boolean skipSpaces() {
+            int from = index;
+            while(index < end && text.charAt(index) == ' '){
+                index++;
+            }
+            return index > from && index < end;
+        }
+
+        private void expectSpace() {
+            if(!skipSpaces()){
+                throw error("Expected another field");
+            }
+        }
+
+        private char peek() {
+            return index < end ? text.charAt(index) : '\0';
+        }
+
+        private char next() {
+            if(index >= end){
+                throw error("Unexpected end of FEN");
+            }
+            return text.charAt(index++);
+        }
+
+        private IllegalArgumentException error(String message) {
+            return new IllegalArgumentException(message + " at index " + (index - start) + " of FEN: "
+                    + text.subSequence(start, end));
+        }
+    }
+
+    /**
+     * Views the bytes of a buffer as ASCII characters, indexed by absolute
+     * buffer position, without copying them
+     */
+    private static final class AsciiChars implements CharSequence {
+
+        private final ByteBuffer buffer;
+
+        AsciiChars(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int length() {
+            return buffer.limit();
+        }
+
+        @Override
+        public char charAt(int index) {
+            return (char) (buffer.get(index) & 0xFF);
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            var str = new StringBuilder(end - start);
+            for(int i = start; i < end; i++){
+                str.append(charAt(i));
+            }
+            return str;
+        }
+
+        @Override
+        public String toString() {
+            return subSequence(0, length()).toString();
+        }
+    }
+}
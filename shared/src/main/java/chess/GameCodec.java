@@ -0,0 +1,194 @@
+package chess;
+
+import java.nio.ByteBuffer;
+
+/**
+ * A versioned binary encoding of a {@link ChessGame} and the moves that led
+ * to it, for sending over the wire and storing in the database.
+ * <p>
+ * Version 2 layout, in the buffer's byte order:
+ * <pre>
+ * byte    version, 2
+ * byte    flags: bit 0 black moved first, bit 1 the game began from the
+ *         standard starting position, bit 2 the clocks follow
+ * long[4] the position the game began from, as {@link BoardSnapshot} words;
+ *         left out when flag bit 1 is set
+ * short   halfmove clock at the start, unsigned; only with flag bit 2
+ * short   fullmove number at the start, unsigned; only with flag bit 2
+ * short   number of moves, unsigned
+ * short[] the moves made since, as packed {@link Move}s
+ * </pre>
+ * A game from the starting position therefore takes 4 bytes plus 2 per move.
+ * Version 1 is the same without the clocks, and is still read.
+ * Decoding replays the moves, so the result can take them back with
+ * {@link ChessGame#unmakeMove()} just like the original. Every replayed move
+ * must be legal in the position it is made from, so a corrupt or forged
+ * encoding cannot build a game the rules could not reach.
+ */
+public final class GameCodec {
+
+    public static final byte VERSION = 2;
+
+    private static final int BLACK_FIRST = 1;
+    private static final int STANDARD_START = 2;
+    private static final int CLOCKS = 4;
+    private static final int MAX_MOVES = 0xFFFF;
+    private static final long[] START_WORDS = new long[4];
+    // Per-thread scratch game for walking back to the starting position
+    private static final ThreadLocal<ChessGame> SCRATCH = ThreadLocal.withInitial(ChessGame::new);
+    // Per-thread list for checking decoded moves against the legal ones
+    private static final ThreadLocal<MoveList> LEGAL = ThreadLocal.withInitial(MoveList::new);
+
+    static {
+        var board = new ChessBoard();
+        board.resetBoard();
+        for(int i = 0; i < 4; i++){
+            START_WORDS[i] = BoardSnapshot.word(board, i);
+        }
+    }
+
+    private GameCodec() {
+    }
+
+    /**
+     * @return the number of bytes {@link #encode(ChessGame, ByteBuffer)} writes for the game
+     */
+    public static int encodedSize(ChessGame game) {
+        return encodedSize(startOf(game), game);
+    }
+
+    private static int encodedSize(ChessGame start, ChessGame game) {
+        return 4 + (isStandardStart(start.getBoard()) ? 0 : 32) + (hasClocks(start) ? 4 : 0)
+                + 2 * game.getUndoDepth();
+    }
+
+    /**
+     * @return the game encoded into a new array
+     */
+    public static byte[] encode(ChessGame game) {
+        var start = startOf(game);
+        var buffer = ByteBuffer.allocate(encodedSize(start, game));
+        encode(start, game, buffer);
+        return buffer.array();
+    }
+
+    /**
+     * Writes the game at the buffer's position. The game is only read.
+     *
+     * @throws IllegalArgumentException         if the game has more moves than fit
+     * @throws java.nio.BufferOverflowException if the buffer runs out of room
+     */
+    public static void encode(ChessGame game, ByteBuffer buffer) {
+        encode(startOf(game), game, buffer);
+    }
+
+    /**
+     * @param start the position the game began from, as found by {@link #startOf}
+     */
+    private static void encode(ChessGame start, ChessGame game, ByteBuffer buffer) {
+        int moves = game.getUndoDepth();
+        if(moves > MAX_MOVES){
+            throw new IllegalArgumentException("Too many moves to encode: " + moves);
+        }
+        boolean standard = isStandardStart(start.getBoard());
+        boolean clocks = hasClocks(start);
+        if(clocks && (start.getHalfmoveClock() > MAX_MOVES || start.getFullmoveNumber() > MAX_MOVES)){
+            throw new IllegalArgumentException("Move clocks too large to encode");
+        }
+        int flags = (start.getTeamTurn() == ChessGame.TeamColor.BLACK ? BLACK_FIRST : 0)
+                | (standard ? STANDARD_START : 0) | (clocks ? CLOCKS : 0);
+        buffer.put(VERSION).put((byte) flags);
+        if(!standard){
+            for(int i = 0; i < 4; i++){
+                buffer.putLong(BoardSnapshot.word(start.getBoard(), i));
+            }
+        }
+        if(clocks){
+            buffer.putShort((short) start.getHalfmoveClock()).putShort((short) start.getFullmoveNumber());
+        }
+        buffer.putShort((short) moves);
+        for(int i = 0; i < moves; i++){
+            buffer.putShort((short) game.undoMove(i));
+        }
+    }
+
+    /**
+     * @return a new game read from the buffer's position
+     */
+    public static ChessGame decode(ByteBuffer buffer) {
+        var game = new ChessGame();
+        decode(buffer, game);
+        return game;
+    }
+
+    /**
+     * Reads a game from the buffer's position into an existing game, reusing its board
+     *
+     * @throws IllegalArgumentException          if the data is not a game this codec wrote
+     * @throws java.nio.BufferUnderflowException if the buffer ends early
+     */
+    public static void decode(ByteBuffer buffer, ChessGame game) {
+        int version = buffer.get();
+        if(version != 1 && version != VERSION){
+            throw new IllegalArgumentException("Unsupported game encoding version " + version);
+        }
+        int flags = buffer.get();
+        var board = game.getBoard();
+        board.clear();
+        for(int i = 0; i < 4; i++){
+            long word = (flags & STANDARD_START) != 0 ? START_WORDS[i] : buffer.getLong();
+            if(!BoardSnapshot.isValidWord(word)){
+                throw new IllegalArgumentException("Invalid square in encoded game");
+            }
+            BoardSnapshot.fillWord(board, i, word);
+        }
+        game.setBoard(board);
+        game.setTeamTurn((flags & BLACK_FIRST) != 0 ? ChessGame.TeamColor.BLACK : ChessGame.TeamColor.WHITE);
+        if(version > 1 && (flags & CLOCKS) != 0){
+            game.setHalfmoveClock(Short.toUnsignedInt(buffer.getShort()));
+            game.setFullmoveNumber(Short.toUnsignedInt(buffer.getShort()));
+        }
+        int moves = Short.toUnsignedInt(buffer.getShort());
+        var legal = LEGAL.get();
+        for(int i = 0; i < moves; i++){
+            int move = Short.toUnsignedInt(buffer.getShort());
+            int code = board.pieceAt(Move.from(move));
+            boolean valid = code != ChessBoard.EMPTY && ChessBoard.colorOf(code) == game.getTeamTurn().ordinal();
+            if(valid){
+                legal.clear();
+                MoveGenerator.generateLegalPieceMoves(board, Move.from(move), legal);
+                valid = legal.contains(move);
+            }
+            if(!valid){
+                throw new IllegalArgumentException("Invalid move " + i + " in encoded game: " + Move.toString(move));
+            }
+            game.makeMove(move);
+        }
+    }
+
+    /**
+     * Copies the game into this thread's scratch game and takes back every
+     * move, leaving the position the game began from
+     */
+    private static ChessGame startOf(ChessGame game) {
+        var start = SCRATCH.get();
+        start.copyFrom(game);
+        while(start.getUndoDepth() > 0){
+            start.unmakeMove();
+        }
+        return start;
+    }
+
+    private static boolean hasClocks(ChessGame start) {
+        return start.getHalfmoveClock() != 0 || start.getFullmoveNumber() != 1;
+    }
+
+    private static boolean isStandardStart(ChessBoard board) {
+        for(int i = 0; i < 4; i++){
+            if(BoardSnapshot.word(board, i) != START_WORDS[i]){
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,106 @@
+package chess;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * The state of a game from one team's point of view: whether it is in
+ * check, whether it can move, and any reason the game is drawn.
+ * <p>
+ * Instances are immutable. {@link ChessGame#getStatus} works one out once per
+ * position and hands the same instance back until the position changes.
+ */
+public final class GameStatus {
+
+    /**
+     * Why a game is drawn even though the side to move still has moves
+     */
+    public enum DrawReason {
+        /** Neither side has the material left to ever give mate */
+        INSUFFICIENT_MATERIAL,
+        /** Fifty moves by each side without a capture or pawn move */
+        FIFTY_MOVE_RULE,
+        /** The same position, with the same side to move, has occurred three times */
+        THREEFOLD_REPETITION
+    }
+
+    // The board key this status was computed for, so a cached copy can be checked
+    final long key;
+    private final ChessGame.TeamColor team;
+    private final boolean inCheck;
+    private final boolean hasLegalMove;
+    private final int halfmoveClock;
+    private final int repetitionCount;
+    private final Set<DrawReason> drawReasons;
+
+    GameStatus(long key, ChessGame.TeamColor team, boolean inCheck, boolean hasLegalMove, int halfmoveClock,
+               int repetitionCount, Set<DrawReason> drawReasons) {
+        this.key = key;
+        this.team = team;
+        this.inCheck = inCheck;
+        this.hasLegalMove = hasLegalMove;
+        this.halfmoveClock = halfmoveClock;
+        this.repetitionCount = repetitionCount;
+        this.drawReasons = drawReasons.isEmpty() ? Collections.emptySet()
+                : Collections.unmodifiableSet(EnumSet.copyOf(drawReasons));
+    }
+
+    /**
+     * @return the team this status describes
+     */
+    public ChessGame.TeamColor getTeam() {
+        return team;
+    }
+
+    /**
+     * @return the game's halfmove clock when this status was worked out
+     */
+    public int getHalfmoveClock() {
+        return halfmoveClock;
+    }
+
+    /**
+     * @return how many times the position had occurred when this status was worked out
+     */
+    public int getRepetitionCount() {
+        return repetitionCount;
+    }
+
+    public boolean isInCheck() {
+        return inCheck;
+    }
+
+    public boolean isCheckmate() {
+        return inCheck && !hasLegalMove;
+    }
+
+    public boolean isStalemate() {
+        return !inCheck && !hasLegalMove;
+    }
+
+    /**
+     * @return the reasons the game is drawn, empty if it is not
+     */
+    public Set<DrawReason> getDrawReasons() {
+        return drawReasons;
+    }
+
+    public boolean isDraw() {
+        return isStalemate() || !drawReasons.isEmpty();
+    }
+
+    /**
+     * @return True if the game cannot continue: mate, stalemate or any other draw
+     */
+    public boolean isGameOver() {
+        return !hasLegalMove || !drawReasons.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        return "GameStatus{team=" + team + ", inCheck=" + inCheck + ", hasLegalMove=" + hasLegalMove
+                + ", halfmoveClock=" + halfmoveClock + ", repetitionCount=" + repetitionCount
+                + ", drawReasons=" + drawReasons + '}';
+    }
+}
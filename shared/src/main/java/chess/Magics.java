@@ -0,0 +1,164 @@
+package chess;
+
+/**
+ * Magic-bitboard attack tables for rooks and bishops.
+ * <p>
+ * For each square the relevant blockers (the ray squares excluding the board
+ * edge) are multiplied by a magic number and shifted down to an index into a
+ * precomputed attack table. The magic numbers are found once at class-init
+ * time with a seeded search, so the tables are identical on every run.
+ */
+final class Magics {
+
+    private static final int[][] ROOK_DIRECTIONS = {{1, 0}, {-1, 0}, {0, 1}, {0, -1}};
+    private static final int[][] BISHOP_DIRECTIONS = {{1, 1}, {1, -1}, {-1, 1}, {-1, -1}};
+
+    private static final long[] ROOK_MASKS = new long[64];
+    private static final long[] ROOK_MAGICS = new long[64];
+    private static final int[] ROOK_SHIFTS = new int[64];
+    private static final int[] ROOK_OFFSETS = new int[64];
+    private static final long[] ROOK_TABLE;
+
+    private static final long[] BISHOP_MASKS = new long[64];
+    private static final long[] BISHOP_MAGICS = new long[64];
+    private static final int[] BISHOP_SHIFTS = new int[64];
+    private static final int[] BISHOP_OFFSETS = new int[64];
+    private static final long[] BISHOP_TABLE;
+
+    static {
+        ROOK_TABLE = build(ROOK_DIRECTIONS, ROOK_MASKS, ROOK_MAGICS, ROOK_SHIFTS, ROOK_OFFSETS, 0x5eed_2001L);
+        BISHOP_TABLE = build(BISHOP_DIRECTIONS, BISHOP_MASKS, BISHOP_MAGICS, BISHOP_SHIFTS, BISHOP_OFFSETS, 0x5eed_3001L);
+    }
+
+    private Magics() {
+    }
+
+    static long rookAttacks(int square, long occupied) {
+        int index = (int) (((occupied & ROOK_MASKS[square]) * ROOK_MAGICS[square]) >>> ROOK_SHIFTS[square]);
+        return ROOK_TABLE[ROOK_OFFSETS[square] + index];
+    }
+
+    static long bishopAttacks(int square, long occupied) {
+        int index = (int) (((occupied & BISHOP_MASKS[square]) * BISHOP_MAGICS[square]) >>> BISHOP_SHIFTS[square]);
+        return BISHOP_TABLE[BISHOP_OFFSETS[square] + index];
+    }
+
+    /**
+     * Walks each ray from a square one step at a time, stopping after the
+     * first occupied square. Used to build the tables and as a reference.
+     */
+    static long rayAttacks(int square, long occupied, int[][] directions) {
+        long attacks = 0L;
+        int row = Bitboards.row(square);
+        int col = Bitboards.column(square);
+        for(int[] dir : directions){
+            int r = row + dir[0];
+            int c = col + dir[1];
+            while(Bitboards.inBounds(r, c)){
+                long bit = Bitboards.bit(Bitboards.square(r, c));
+                attacks |= bit;
+                if((occupied & bit) != 0){
+                    break;
+                }
+                r += dir[0];
+                c += dir[1];
+            }
+        }
+        return attacks;
+    }
+
+    static long rookRayAttacks(int square, long occupied) {
+        return rayAttacks(square, occupied, ROOK_DIRECTIONS);
+    }
+
+    static long bishopRayAttacks(int square, long occupied) {
+        return rayAttacks(square, occupied, BISHOP_DIRECTIONS);
+    }
+
+    /**
+     * The squares whose occupancy can change the attacks from a square: every
+     * ray square except the last one before the edge.
+     */
+    private static long relevantMask(int square, int[][] directions) {
+        long mask = 0L;
+        int row = Bitboards.row(square);
+        int col = Bitboards.column(square);
+        for(int[] dir : directions){
+            int r = row + dir[0];
+            int c = col + dir[1];
+            while(Bitboards.inBounds(r + dir[0], c + dir[1])){
+                mask |= Bitboards.bit(Bitboards.square(r, c));
+                r += dir[0];
+                c += dir[1];
+            }
+        }
+        return mask;
+    }
+
+    private static long[] build(int[][] directions, long[] masks, long[] magics, int[] shifts, int[] offsets,
+                                long seed) {
+        int total = 0;
+        for(int sq = 0; sq < 64; sq++){
+            masks[sq] = relevantMask(sq, directions);
+            shifts[sq] = 64 - Long.bitCount(masks[sq]);
+            offsets[sq] = total;
+            total += 1 << Long.bitCount(masks[sq]);
+        }
+        long[] table = new long[total];
+        long[] state = {seed};
+        for(int sq = 0; sq < 64; sq++){
+            int size = 1 << Long.bitCount(masks[sq]);
+            long[] occupancies = new long[size];
+            long[] attacks = new long[size];
+            // Carry-Rippler enumeration of every subset of the mask
+            long subset = 0L;
+            for(int i = 0; i < size; i++){
+                occupancies[i] = subset;
+                attacks[i] = rayAttacks(sq, subset, directions);
+                subset = (subset - masks[sq]) & masks[sq];
+            }
+            magics[sq] = findMagic(masks[sq], shifts[sq], occupancies, attacks, state);
+            for(int i = 0; i < size; i++){
+                int index = (int) ((occupancies[i] * magics[sq]) >>> shifts[sq]);
+                table[offsets[sq] + index] = attacks[i];
+            }
+        }
+        return table;
+    }
+
+    private static long findMagic(long mask, int shift, long[] occupancies, long[] attacks, long[] state) {
+        long[] used = new long[occupancies.length];
+        int[] epoch = new int[occupancies.length];
+        int attempt = 0;
+        while(true){
+            long magic = nextRandom(state) & nextRandom(state) & nextRandom(state);
+            if(Long.bitCount((mask * magic) & 0xFF00000000000000L) < 6){
+                continue;
+            }
+            attempt++;
+            boolean collision = false;
+            for(int i = 0; i < occupancies.length && !collision; i++){
+                int index = (int) ((occupancies[i] * magic) >>> shift);
+                if(epoch[index] != attempt){
+                    epoch[index] = attempt;
+                    used[index] = attacks[i];
+                } else if(used[index] != attacks[i]){
+                    collision = true;
+                }
+            }
+            if(!collision){
+                return magic;
+            }
+        }
+    }
+
+    private static long nextRandom(long[] state) {
+        // xorshift64*
+        long x = state[0];
+        x ^= x >>> 12;
+        x ^= x << 25;
+        x ^= x >>> 27;
+        state[0] = x;
+        return x * 0x2545F4914F6CDD1DL;
+    }
+}
@@ -0,0 +1,123 @@
+package chess;
+
+/**
+ * Packs a chess move into a single int so move generation can run without
+ * allocating a {@link ChessMove} per move.
+ * <p>
+ * Layout (low bits first): 6 bits start square, 6 bits end square, 3 bits
+ * promotion piece ({@link ChessPiece.PieceType} ordinal + 1, or 0 for none).
+ * A move always fits in the low 16 bits, and 0 is never a real move.
+ */
+public final class Move {
+
+    /** Encodes "no move"; a1 to a1 can never be generated */
+    public static final int NONE = 0;
+
+    private static final int SQUARE_MASK = 0x3F;
+    private static final int TO_SHIFT = 6;
+    private static final int PROMOTION_SHIFT = 12;
+    private static final int PROMOTION_MASK = 0x7;
+    private static final ChessPiece.PieceType[] TYPES = ChessPiece.PieceType.values();
+    private static final char[] PROMOTION_CHARS = {' ', 'k', 'q', 'b', 'n', 'r', 'p'};
+
+    private Move() {
+    }
+
+    /**
+     * @param from      start square index
+     * @param to        end square index
+     * @param promotion {@link ChessPiece.PieceType} ordinal to promote to, or -1
+     * @return the packed move
+     */
+    public static int encode(int from, int to, int promotion) {
+        return from | (to << TO_SHIFT) | ((promotion + 1) << PROMOTION_SHIFT);
+    }
+
+    public static int encode(int from, int to) {
+        return from | (to << TO_SHIFT);
+    }
+
+    public static int from(int move) {
+        return move & SQUARE_MASK;
+    }
+
+    public static int to(int move) {
+        return (move >>> TO_SHIFT) & SQUARE_MASK;
+    }
+
+    /**
+     * @return the {@link ChessPiece.PieceType} ordinal promoted to, or -1
+     */
+    public static int promotion(int move) {
+        return ((move >>> PROMOTION_SHIFT) & PROMOTION_MASK) - 1;
+    }
+
+    public static boolean isPromotion(int move) {
+        return ((move >>> PROMOTION_SHIFT) & PROMOTION_MASK) != 0;
+    }
+
+    public static ChessMove toChessMove(int move) {
+        int promotion = promotion(move);
+        return ChessMove.of(Bitboards.position(from(move)), Bitboards.position(to(move)),
+                promotion < 0 ? null : TYPES[promotion]);
+    }
+
+    public static int fromChessMove(ChessMove move) {
+        var promotion = move.getPromotionPiece();
+        return encode(Bitboards.square(move.getStartPosition()), Bitboards.square(move.getEndPosition()),
+                promotion == null ? -1 : promotion.ordinal());
+    }
+
+    /**
+     * @return the move in coordinate notation, e.g. "e2e4" or "e7e8q"
+     */
+    public static String toString(int move) {
+        var str = new StringBuilder(5);
+        appendSquare(str, from(move));
+        appendSquare(str, to(move));
+        if(isPromotion(move)){
+            str.append(PROMOTION_CHARS[promotion(move) + 1]);
+        }
+        return str.toString();
+    }
+
+    /**
+     * Reads a move in coordinate notation, the inverse of {@link #toString(int)}
+     *
+     * @param text e.g. "e2e4" or "e7e8q"
+     * @return the packed move
+     * @throws IllegalArgumentException if the text is not a move
+     */
+    public static int parse(CharSequence text) {
+        int length = text.length();
+        if(length != 4 && length != 5){
+            throw new IllegalArgumentException("Invalid move: " + text);
+        }
+        int from = parseSquare(text, 0);
+        int to = parseSquare(text, 2);
+        if(length == 4){
+            return encode(from, to);
+        }
+        int promotion = switch(text.charAt(4)){
+            case 'q' -> MoveGenerator.QUEEN;
+            case 'r' -> MoveGenerator.ROOK;
+            case 'b' -> MoveGenerator.BISHOP;
+            case 'n' -> MoveGenerator.KNIGHT;
+            default -> throw new IllegalArgumentException("Invalid promotion piece: " + text);
+        };
+        return encode(from, to, promotion);
+    }
+
+    private static int parseSquare(CharSequence text, int index) {
+        int file = text.charAt(index) - 'a';
+        int rank = text.charAt(index + 1) - '1';
+        if(file < 0 || file > 7 || rank < 0 || rank > 7){
+            throw new IllegalArgumentException("Invalid square in move: " + text);
+        }
+        return (rank << 3) | file;
+    }
+
+    private static void appendSquare(StringBuilder str, int square) {
+        str.append((char) ('a' + (square & 7))).append((char) ('1' + (square >>> 3)));
+    }
+}
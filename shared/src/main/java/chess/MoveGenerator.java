@@ -0,0 +1,324 @@
+package chess;
+
+/**
+ * Move generation over a {@link ChessBoard}'s bitboards.
+ * <p>
+ * Moves are written as packed {@link Move}s into a caller-owned
+ * {@link MoveList}, so generation itself allocates nothing. The pseudo-legal
+ * generators do not filter out moves that leave the mover's king in danger;
+ * the legal generators do, without playing any move, by working out the
+ * checking pieces and pinned pieces once per position.
+ */
+public final class MoveGenerator {
+
+    static final int KING = ChessPiece.PieceType.KING.ordinal();
+    static final int QUEEN = ChessPiece.PieceType.QUEEN.ordinal();
+    static final int BISHOP = ChessPiece.PieceType.BISHOP.ordinal();
+    static final int KNIGHT = ChessPiece.PieceType.KNIGHT.ordinal();
+    static final int ROOK = ChessPiece.PieceType.ROOK.ordinal();
+    static final int PAWN = ChessPiece.PieceType.PAWN.ordinal();
+
+    private static final long ROW_1 = 0xFFL;
+    private static final long ROW_8 = 0xFFL << 56;
+
+    private MoveGenerator() {
+    }
+
+    /**
+     * Adds the pseudo-legal moves of every piece of one color
+     *
+     * @param colorIndex 0 for white, 1 for black
+     */
+    public static void generatePseudoLegal(ChessBoard board, int colorIndex, MoveList moves) {
+        long own = board.getOccupancy(colorIndex);
+        while(own != 0){
+            int from = Bitboards.first(own);
+            generatePieceMoves(board, from, board.pieceAt(from), moves);
+            own = Bitboards.popFirst(own);
+        }
+    }
+
+    /**
+     * Adds the pseudo-legal moves of a piece standing on a square. The piece
+     * code is passed in rather than read from the board, so a piece can be
+     * asked about a square it does not occupy yet.
+     */
+    public static void generatePieceMoves(ChessBoard board, int from, int code, MoveList moves) {
+        generatePieceMoves(board, from, code, Bitboards.ALL, moves);
+    }
+
+    /**
+     * Adds the legal moves of every piece of one color
+     *
+     * @param colorIndex 0 for white, 1 for black
+     */
+    public static void generateLegal(ChessBoard board, int colorIndex, MoveList moves) {
+        generateLegal(board, colorIndex, Bitboards.ALL, moves);
+    }
+
+    /**
+     * Adds the legal captures of every piece of one color, including
+     * capturing promotions but not promotions by a straight push
+     *
+     * @param colorIndex 0 for white, 1 for black
+     */
+    public static void generateLegalCaptures(ChessBoard board, int colorIndex, MoveList moves) {
+        generateLegal(board, colorIndex, board.getOccupancy(colorIndex ^ 1), moves);
+    }
+
+    /**
+     * Adds the legal moves of one color whose destination is in a mask
+     */
+    private static void generateLegal(ChessBoard board, int colorIndex, long targets, MoveList moves) {
+        int king = board.kingSquare(colorIndex);
+        long own = board.getOccupancy(colorIndex);
+        if(king < 0){
+            while(own != 0){
+                int from = Bitboards.first(own);
+                generatePieceMoves(board, from, board.pieceAt(from), targets, moves);
+                own = Bitboards.popFirst(own);
+            }
+            return;
+        }
+        long checkMask = checkMask(board, king, colorIndex) & targets;
+        long pinned = pinned(board, king, colorIndex);
+        while(own != 0){
+            addLegalPieceMoves(board, Bitboards.first(own), king, checkMask, targets, pinned, moves);
+            own = Bitboards.popFirst(own);
+        }
+    }
+
+    /**
+     * Adds the legal moves of the piece standing on a square, if any
+     */
+    public static void generateLegalPieceMoves(ChessBoard board, int from, MoveList moves) {
+        int code = board.pieceAt(from);
+        if(code == ChessBoard.EMPTY){
+            return;
+        }
+        int color = ChessBoard.colorOf(code);
+        int king = board.kingSquare(color);
+        if(king < 0){
+            generatePieceMoves(board, from, code, moves);
+            return;
+        }
+        addLegalPieceMoves(board, from, king, checkMask(board, king, color), Bitboards.ALL, pinned(board, king, color),
+                moves);
+    }
+
+    /**
+     * Whether a color has at least one legal move, found without building a
+     * move list. The king is tried first, then the pieces that can capture a
+     * checker, then everything else, and the search stops at the first piece
+     * with somewhere to go.
+     *
+     * @param colorIndex 0 for white, 1 for black
+     */
+    public static boolean hasLegalMove(ChessBoard board, int colorIndex) {
+        int king = board.kingSquare(colorIndex);
+        long own = board.getOccupancy(colorIndex);
+        if(king < 0){
+            while(own != 0){
+                int from = Bitboards.first(own);
+                if(pieceTargets(board, from, board.pieceAt(from), Bitboards.ALL) != 0){
+                    return true;
+                }
+                own = Bitboards.popFirst(own);
+            }
+            return false;
+        }
+        if(kingTargets(board, king, colorIndex) != 0){
+            return true;
+        }
+        long checkMask = checkMask(board, king, colorIndex);
+        if(checkMask == 0){
+            return false;
+        }
+        long pinned = pinned(board, king, colorIndex);
+        own ^= Bitboards.bit(king);
+        if(checkMask != Bitboards.ALL){
+            int checker = Bitboards.first(checkMask & board.getOccupancy(colorIndex ^ 1));
+            long capturers = board.attackersTo(checker, colorIndex, board.getOccupied()) & own;
+            if(hasLegalTarget(board, capturers, king, checkMask, pinned)){
+                return true;
+            }
+            own &= ~capturers;
+        }
+        return hasLegalTarget(board, own, king, checkMask, pinned);
+    }
+
+    private static boolean hasLegalTarget(ChessBoard board, long pieces, int king, long checkMask, long pinned) {
+        while(pieces != 0){
+            int from = Bitboards.first(pieces);
+            long mask = Bitboards.contains(pinned, from) ? checkMask & Bitboards.line(king, from) : checkMask;
+            if(mask != 0 && pieceTargets(board, from, board.pieceAt(from), mask) != 0){
+                return true;
+            }
+            pieces = Bitboards.popFirst(pieces);
+        }
+        return false;
+    }
+
+    /**
+     * The squares a non-king piece may move to while its king is in check:
+     * anything when not in check, capturing or blocking a single checker, and
+     * nothing when two pieces give check
+     */
+    static long checkMask(ChessBoard board, int king, int color) {
+        long checkers = board.attackersTo(king, color ^ 1, board.getOccupied());
+        if(checkers == 0){
+            return Bitboards.ALL;
+        } else if(Bitboards.popFirst(checkers) != 0){
+            return Bitboards.EMPTY;
+        }
+        return checkers | Bitboards.between(king, Bitboards.first(checkers));
+    }
+
+    /**
+     * The pieces of a color that are the only blocker between their king and
+     * an enemy slider on the same line
+     */
+    static long pinned(ChessBoard board, int king, int color) {
+        int enemy = color ^ 1;
+        long occupied = board.getOccupied();
+        long enemyPieces = board.getOccupancy(enemy);
+        long queens = board.getPieces(enemy * 6 + QUEEN);
+        long snipers = (Bitboards.rookAttacks(king, enemyPieces) & (board.getPieces(enemy * 6 + ROOK) | queens))
+                | (Bitboards.bishopAttacks(king, enemyPieces) & (board.getPieces(enemy * 6 + BISHOP) | queens));
+        long pinned = 0L;
+        while(snipers != 0){
+            long blockers = Bitboards.between(king, Bitboards.first(snipers)) & occupied;
+            if(blockers != 0 && Bitboards.popFirst(blockers) == 0){
+                pinned |= blockers & board.getOccupancy(color);
+            }
+            snipers = Bitboards.popFirst(snipers);
+        }
+        return pinned;
+    }
+
+    /**
+     * @param checkMask where a non-king piece may go, see {@link #checkMask}
+     * @param targets   the squares the king may move to, if they are safe
+     */
+    private static void addLegalPieceMoves(ChessBoard board, int from, int king, long checkMask, long targets,
+                                           long pinned, MoveList moves) {
+        int code = board.pieceAt(from);
+        int color = ChessBoard.colorOf(code);
+        if(ChessBoard.typeOf(code) == KING){
+            addMoves(from, kingTargets(board, from, color) & targets, moves);
+            return;
+        }
+        long mask = checkMask;
+        if(Bitboards.contains(pinned, from)){
+            mask &= Bitboards.line(king, from);
+        }
+        if(mask != 0){
+            generatePieceMoves(board, from, code, mask, moves);
+        }
+    }
+
+    /**
+     * The squares a king may step to. It may not step onto an attacked
+     * square, including squares a slider would reach once the king no longer
+     * blocks it.
+     */
+    private static long kingTargets(ChessBoard board, int king, int color) {
+        long targets = Bitboards.kingAttacks(king) & ~board.getOccupancy(color);
+        long occupied = board.getOccupied() ^ Bitboards.bit(king);
+        long safe = 0L;
+        while(targets != 0){
+            int to = Bitboards.first(targets);
+            if(board.attackersTo(to, color ^ 1, occupied) == 0){
+                safe |= Bitboards.bit(to);
+            }
+            targets = Bitboards.popFirst(targets);
+        }
+        return safe;
+    }
+
+    /**
+     * The pseudo-legal destinations of a piece that are in a mask, the same
+     * squares {@link #generatePieceMoves} would emit moves to
+     */
+    private static long pieceTargets(ChessBoard board, int from, int code, long mask) {
+        int color = ChessBoard.colorOf(code);
+        int type = ChessBoard.typeOf(code);
+        long occupied = board.getOccupied();
+        long allowed = ~board.getOccupancy(color) & mask;
+        if(type == PAWN){
+            long targets = Bitboards.pawnAttacks(color, from) & board.getOccupancy(color ^ 1);
+            int single = from + (color == 0 ? 8 : -8);
+            if(single >= 0 && single < 64 && !Bitboards.contains(occupied, single)){
+                targets |= Bitboards.bit(single);
+                int twice = single + (single - from);
+                if(Bitboards.row(from) == (color == 0 ? 2 : 7) && !Bitboards.contains(occupied, twice)){
+                    targets |= Bitboards.bit(twice);
+                }
+            }
+            return targets & mask;
+        }
+        if(type == KNIGHT){
+            return Bitboards.knightAttacks(from) & allowed;
+        } else if(type == KING){
+            return Bitboards.kingAttacks(from) & allowed;
+        } else if(type == BISHOP){
+            return Bitboards.bishopAttacks(from, occupied) & allowed;
+        } else if(type == ROOK){
+            return Bitboards.rookAttacks(from, occupied) & allowed;
+        }
+        return Bitboards.queenAttacks(from, occupied) & allowed;
+    }
+
+    /**
+     * Adds the pseudo-legal moves of a piece whose destination is in a mask
+     */
+    private static void generatePieceMoves(ChessBoard board, int from, int code, long mask, MoveList moves) {
+        if(ChessBoard.typeOf(code) == PAWN){
+            generatePawnMoves(board, from, ChessBoard.colorOf(code), mask, moves);
+        } else {
+            addMoves(from, pieceTargets(board, from, code, mask), moves);
+        }
+    }
+
+    private static void generatePawnMoves(ChessBoard board, int from, int color, long mask, MoveList moves) {
+        long occupied = board.getOccupied();
+        int forward = color == 0 ? 8 : -8;
+        int startRow = color == 0 ? 2 : 7;
+        long lastRow = color == 0 ? ROW_8 : ROW_1;
+
+        int single = from + forward;
+        if(single >= 0 && single < 64 && !Bitboards.contains(occupied, single)){
+            if(Bitboards.contains(mask, single)){
+                addPawnMove(from, single, lastRow, moves);
+            }
+            int twice = single + forward;
+            if(Bitboards.row(from) == startRow && !Bitboards.contains(occupied, twice)
+                    && Bitboards.contains(mask, twice)){
+                moves.add(Move.encode(from, twice));
+            }
+        }
+        long captures = Bitboards.pawnAttacks(color, from) & board.getOccupancy(color ^ 1) & mask;
+        while(captures != 0){
+            addPawnMove(from, Bitboards.first(captures), lastRow, moves);
+            captures = Bitboards.popFirst(captures);
+        }
+    }
+
+    private static void addPawnMove(int from, int to, long lastRow, MoveList moves) {
+        if(Bitboards.contains(lastRow, to)){
+            moves.add(Move.encode(from, to, QUEEN));
+            moves.add(Move.encode(from, to, ROOK));
+            moves.add(Move.encode(from, to, BISHOP));
+            moves.add(Move.encode(from, to, KNIGHT));
+        } else {
+            moves.add(Move.encode(from, to));
+        }
+    }
+
+    private static void addMoves(int from, long targets, MoveList moves) {
+        while(targets != 0){
+            moves.add(Move.encode(from, Bitboards.first(targets)));
+            targets = Bitboards.popFirst(targets);
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package chess;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * A growable list of packed {@link Move}s backed by an int array.
+ * <p>
+ * Meant to be reused: {@link #clear()} keeps the backing array, so a list
+ * that has grown to fit the largest position never allocates again.
+ */
+public final class MoveList {
+
+    private int[] moves;
+    private int size;
+
+    public MoveList() {
+        this(64);
+    }
+
+    public MoveList(int capacity) {
+        this.moves = new int[Math.max(capacity, 1)];
+    }
+
+    public void add(int move) {
+        if(size == moves.length){
+            moves = Arrays.copyOf(moves, size * 2);
+        }
+        moves[size++] = move;
+    }
+
+    public int get(int index) {
+        return moves[index];
+    }
+
+    public void set(int index, int move) {
+        moves[index] = move;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * Shrinks the list to its first {@code size} moves
+     */
+    public void truncate(int size) {
+        this.size = Math.min(this.size, size);
+    }
+
+    public boolean contains(int move) {
+        for(int i = 0; i < size; i++){
+            if(moves[i] == move){
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public void swap(int i, int j) {
+        int tmp = moves[i];
+        moves[i] = moves[j];
+        moves[j] = tmp;
+    }
+
+    /**
+     * @return the moves as a new collection of {@link ChessMove}s
+     */
+    public Collection<ChessMove> toChessMoves() {
+        Collection<ChessMove> chessMoves = new ArrayList<>(size);
+        for(int i = 0; i < size; i++){
+            chessMoves.add(Move.toChessMove(moves[i]));
+        }
+        return chessMoves;
+    }
+
+    @Override
+    public String toString() {
+        var str = new StringBuilder("[");
+        for(int i = 0; i < size; i++){
+            if(i > 0){
+                str.append(", ");
+            }
+            str.append(Move.toString(moves[i]));
+        }
+        return str.append("]").toString();
+    }
+}
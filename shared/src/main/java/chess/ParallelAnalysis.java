@@ -0,0 +1,97 @@
+package chess;
+
+import java.io.Serial;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Function;
+
+/**
+ * Runs an analysis over many positions on a {@link ForkJoinPool}.
+ * <p>
+ * The list of games is split in halves until the pieces are small, and every
+ * game is copied before it is analyzed, so each worker mutates only its own
+ * {@link ChessBoard} and the caller's games are never touched. This is the
+ * splitting used by {@link Perft#parallelPerft}, and works the same for any
+ * per-position job such as validating a batch of stored games.
+ */
+public final class ParallelAnalysis {
+
+    private ParallelAnalysis() {
+    }
+
+    /**
+     * Applies an analysis to a private copy of every game, in parallel
+     *
+     * @param pool     the pool to run on
+     * @param games    the positions to analyze
+     * @param analysis the work to do on each copy; it may make and unmake moves freely
+     * @return the results, in the same order as the games
+     */
+    public static <R> List<R> map(ForkJoinPool pool, List<ChessGame> games, Function<ChessGame, R> analysis) {
+        return map(pool, games, analysis, true);
+    }
+
+    /**
+     * {@link #map} on the common pool
+     */
+    public static <R> List<R> map(List<ChessGame> games, Function<ChessGame, R> analysis) {
+        return map(ForkJoinPool.commonPool(), games, analysis);
+    }
+
+    /**
+     * {@link #map} without the copies, for games that are already private to
+     * the analysis and that the caller will not use again
+     */
+    static <R> List<R> mapOwned(ForkJoinPool pool, List<ChessGame> games, Function<ChessGame, R> analysis) {
+        return map(pool, games, analysis, false);
+    }
+
+    private static <R> List<R> map(ForkJoinPool pool, List<ChessGame> games, Function<ChessGame, R> analysis,
+                                   boolean copy) {
+        Object[] results = new Object[games.size()];
+        pool.invoke(new AnalysisTask<>(games, analysis, copy, results, 0, games.size()));
+        @SuppressWarnings("unchecked")
+        List<R> list = (List<R>) Arrays.asList(results);
+        return new ArrayList<>(list);
+    }
+
+    // Never serialized, but RecursiveAction is Serializable
+    private static final class AnalysisTask<R> extends RecursiveAction {
+
+        @Serial
+        private static final long serialVersionUID = 1L;
+
+        private final transient List<ChessGame> games;
+        private final transient Function<ChessGame, R> analysis;
+        private final boolean copy;
+        private final transient Object[] results;
+        private final int from, to;
+
+        AnalysisTask(List<ChessGame> games, Function<ChessGame, R> analysis, boolean copy, Object[] results,
+                     int from, int to) {
+            this.games = games;
+            this.analysis = analysis;
+            this.copy = copy;
+            this.results = results;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if(to - from <= 1){
+                if(to > from){
+                    var game = games.get(from);
+                    results[from] = analysis.apply(copy ? new ChessGame(game) : game);
+                }
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new AnalysisTask<>(games, analysis, copy, results, from, mid),
+                    new AnalysisTask<>(games, analysis, copy, results, mid, to));
+        }
+    }
+}
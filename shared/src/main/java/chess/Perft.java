@@ -0,0 +1,161 @@
+package chess;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Perft (performance test) node counting: the number of legal move
+ * sequences of a given length from a position. Comparing counts against
+ * known values finds move generation bugs, and timing them measures
+ * generation speed.
+ * <p>
+ * Run {@code Perft [depth] [divide|parallel] [fen]} to count from the
+ * starting position, or the FEN given, and print nodes per second; with
+ * {@code divide} the count is broken down by first move, and with
+ * {@code parallel} it is spread over every core.
+ */
+public final class Perft {
+
+    private Perft() {
+    }
+
+    /**
+     * Counts leaf nodes with the legal move generator and make/unmake. The
+     * game is left in the position it started in.
+     */
+    public static long perft(ChessGame game, int depth) {
+        var lists = new MoveList[Math.max(depth, 1)];
+        for(int i = 0; i < lists.length; i++){
+            lists[i] = new MoveList();
+        }
+        return perft(game, depth, lists);
+    }
+
+    private static long perft(ChessGame game, int depth, MoveList[] lists) {
+        if(depth == 0){
+            return 1;
+        }
+        var moves = lists[depth - 1];
+        moves.clear();
+        MoveGenerator.generateLegal(game.getBoard(), game.getTeamTurn().ordinal(), moves);
+        if(depth == 1){
+            return moves.size();
+        }
+        long nodes = 0;
+        for(int i = 0; i < moves.size(); i++){
+            game.makeMove(moves.get(i));
+            nodes += perft(game, depth - 1, lists);
+            game.unmakeMove();
+        }
+        return nodes;
+    }
+
+    /**
+     * Counts leaf nodes on a {@link ForkJoinPool}. The positions a few plies
+     * down are expanded first, so there are enough independent subtrees to
+     * keep every worker busy, and each one is counted on its own copy of the
+     * game with {@link ParallelAnalysis}. The copies are the ones made while
+     * expanding, so they are not copied again.
+     */
+    public static long parallelPerft(ChessGame game, int depth, ForkJoinPool pool) {
+        int splitDepth = Math.min(depth - 1, depth >= 6 ? 2 : 1);
+        if(splitDepth <= 0){
+            return perft(game, depth);
+        }
+        List<ChessGame> subtrees = new ArrayList<>();
+        expand(new ChessGame(game), splitDepth, subtrees);
+        long nodes = 0;
+        for(long count : ParallelAnalysis.mapOwned(pool, subtrees, subtree -> perft(subtree, depth - splitDepth))){
+            nodes += count;
+        }
+        return nodes;
+    }
+
+    private static void expand(ChessGame game, int depth, List<ChessGame> positions) {
+        if(depth == 0){
+            positions.add(new ChessGame(game));
+            return;
+        }
+        var moves = new MoveList();
+        MoveGenerator.generateLegal(game.getBoard(), game.getTeamTurn().ordinal(), moves);
+        for(int i = 0; i < moves.size(); i++){
+            game.makeMove(moves.get(i));
+            expand(game, depth - 1, positions);
+            game.unmakeMove();
+        }
+    }
+
+    /**
+     * Counts leaf nodes through the public API only: {@link ChessGame#validMoves}
+     * for every piece of the side to move and the validating
+     * {@link ChessGame#makeMove(ChessMove)}. Much slower than {@link #perft},
+     * but exercises the same code the server does.
+     */
+    public static long perftValidMoves(ChessGame game, int depth) throws InvalidMoveException {
+        if(depth == 0){
+            return 1;
+        }
+        long nodes = 0;
+        for(var position : game.getBoard().getPiecePositions(game.getTeamTurn())){
+            var moves = game.validMoves(position);
+            if(depth == 1){
+                nodes += moves.size();
+                continue;
+            }
+            for(var move : moves){
+                game.makeMove(move);
+                nodes += perftValidMoves(game, depth - 1);
+                game.unmakeMove();
+            }
+        }
+        return nodes;
+    }
+
+    /**
+     * Breaks a perft count down by first move
+     *
+     * @return node counts keyed by move in coordinate notation, in generation order
+     */
+    public static Map<String, Long> divide(ChessGame game, int depth) {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        var moves = new MoveList();
+        MoveGenerator.generateLegal(game.getBoard(), game.getTeamTurn().ordinal(), moves);
+        for(int i = 0; i < moves.size(); i++){
+            game.makeMove(moves.get(i));
+            counts.put(Move.toString(moves.get(i)), perft(game, depth - 1));
+            game.unmakeMove();
+        }
+        return counts;
+    }
+
+    public static void main(String[] args) {
+        int depth = args.length > 0 ? Integer.parseInt(args[0]) : 5;
+        boolean divide = args.length > 1 && args[1].equals("divide");
+        boolean parallel = args.length > 1 && args[1].equals("parallel");
+        int fenStart = divide || parallel ? 2 : 1;
+        var game = args.length > fenStart
+                ? Fen.parse(String.join(" ", List.of(args).subList(fenStart, args.length)))
+                : new ChessGame();
+
+        long start = System.nanoTime();
+        long nodes = 0;
+        if(divide){
+            for(var entry : divide(game, depth).entrySet()){
+                System.out.println(entry.getKey() + ": " + entry.getValue());
+                nodes += entry.getValue();
+            }
+        } else if(parallel){
+            var pool = ForkJoinPool.commonPool();
+            System.out.println("threads: " + pool.getParallelism());
+            nodes = parallelPerft(game, depth, pool);
+        } else {
+            nodes = perft(game, depth);
+        }
+        long elapsed = Math.max(System.nanoTime() - start, 1);
+        System.out.printf("depth %d: %d nodes in %d ms (%.0f nodes/sec)%n",
+                depth, nodes, elapsed / 1_000_000, nodes * 1e9 / elapsed);
+    }
+}
@@ -0,0 +1,124 @@
+package chess;
+
+import java.util.Arrays;
+
+/**
+ * Counts how many times each position key has occurred in a game's history,
+ * with O(1) add, remove and lookup.
+ * <p>
+ * An open-addressed table of keys and counts. A slot whose count drops to
+ * zero keeps its key, so probe chains stay intact; such slots are dropped
+ * the next time the table grows.
+ */
+final class RepetitionTable {
+
+    // Stored counts are offset by one so that 0 can mark a slot never used
+    private long[] keys;
+    private int[] counts;
+    private int used;
+
+    RepetitionTable() {
+        keys = new long[64];
+        counts = new int[64];
+    }
+
+    RepetitionTable(RepetitionTable other) {
+        keys = other.keys.clone();
+        counts = other.counts.clone();
+        used = other.used;
+    }
+
+    void copyFrom(RepetitionTable other) {
+        if(keys.length != other.keys.length){
+            keys = new long[other.keys.length];
+            counts = new int[other.counts.length];
+        }
+        System.arraycopy(other.keys, 0, keys, 0, keys.length);
+        System.arraycopy(other.counts, 0, counts, 0, counts.length);
+        used = other.used;
+    }
+
+    /**
+     * @return how many times the key has been added and not removed
+     */
+    int count(long key) {
+        int mask = keys.length - 1;
+        for(int i = index(key, mask); counts[i] != 0; i = (i + 1) & mask){
+            if(keys[i] == key){
+                return counts[i] - 1;
+            }
+        }
+        return 0;
+    }
+
+    void add(long key) {
+        int mask = keys.length - 1;
+        int i = index(key, mask);
+        while(counts[i] != 0){
+            if(keys[i] == key){
+                counts[i]++;
+                return;
+            }
+            i = (i + 1) & mask;
+        }
+        keys[i] = key;
+        counts[i] = 2;
+        if(++used * 2 > keys.length){
+            rehash(keys.length * 2);
+        }
+    }
+
+    /**
+     * Takes back one {@link #add} of a key that is in the table
+     */
+    void remove(long key) {
+        int mask = keys.length - 1;
+        for(int i = index(key, mask); counts[i] != 0; i = (i + 1) & mask){
+            if(keys[i] == key){
+                counts[i]--;
+                return;
+            }
+        }
+    }
+
+    void clear() {
+        if(used > 0){
+            Arrays.fill(counts, 0);
+            used = 0;
+        }
+    }
+
+    private void rehash(int capacity) {
+        long[] oldKeys = keys;
+        int[] oldCounts = counts;
+        // only live keys move over, so the table may not need to grow after all
+        int live = 0;
+        for(int count : oldCounts){
+            if(count > 1){
+                live++;
+            }
+        }
+        if(live * 4 <= oldKeys.length){
+            capacity = oldKeys.length;
+        }
+        keys = new long[capacity];
+        counts = new int[capacity];
+        used = 0;
+        int mask = capacity - 1;
+        for(int j = 0; j < oldKeys.length; j++){
+            if(oldCounts[j] > 1){
+                int i = index(oldKeys[j], mask);
+                while(counts[i] != 0){
+                    i = (i + 1) & mask;
+                }
+                keys[i] = oldKeys[j];
+                counts[i] = oldCounts[j];
+                used++;
+            }
+        }
+    }
+
+    private static int index(long key, int mask) {
+        return (int) (key ^ (key >>> 32)) & mask;
+    }
+}
@@ -0,0 +1,37 @@
+package chess;
+
+import java.util.SplittableRandom;
+
+/**
+ * Random keys for Zobrist position hashing.
+ * <p>
+ * A position's key is the XOR of one key per (piece, square) on the board,
+ * plus {@link #BLACK_TO_MOVE} when it is black's turn. Adding or removing a
+ * piece toggles its key, so the hash is kept current with one XOR per change.
+ * The keys come from a fixed seed so they are identical on every run.
+ */
+public final class Zobrist {
+
+    public static final long BLACK_TO_MOVE;
+    private static final long[][] PIECE_SQUARE = new long[12][64];
+
+    static {
+        var random = new SplittableRandom(0x2403_C4E5_5L);
+        for(int code = 0; code < 12; code++){
+            for(int sq = 0; sq < 64; sq++){
+                PIECE_SQUARE[code][sq] = random.nextLong();
+            }
+        }
+        BLACK_TO_MOVE = random.nextLong();
+    }
+
+    private Zobrist() {
+    }
+
+    /**
+     * @return the key for a piece code standing on a square
+     */
+    public static long piece(int code, int square) {
+        return PIECE_SQUARE[code][square];
+    }
+}
@@ -0,0 +1,346 @@
+package chess.engine;
+
+import chess.ChessPiece;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+
+/**
+ * The numbers behind the {@link Evaluator}: a value for each piece type and
+ * a bonus for each square it can stand on, each given once for the
+ * middlegame and once for the endgame, plus how much each piece left on the
+ * board counts toward still being in the middlegame.
+ * <p>
+ * Weights can be read from a text file, so they can be tuned without
+ * recompiling. The file holds entries of a name followed by its numbers,
+ * and {@code #} starts a comment:
+ * <pre>
+ * knight.value 337 281       # middlegame, endgame
+ * knight.phase 1
+ * knight.middlegame          # 64 square bonuses, row 8 first, from white's side
+ *  -20 -12  -4   4   4  -4 -12 -20
+ *  ...
+ * knight.endgame
+ *  ...
+ * </pre>
+ * Entries left out keep their {@link #DEFAULT} values. {@link #write} gives
+ * a complete file to start from. Black's square bonuses are white's mirrored
+ * top to bottom. Weights are immutable.
+ */
+public final class EvalWeights {
+
+    private static final ChessPiece.PieceType[] TYPES = ChessPiece.PieceType.values();
+    private static final int KING = ChessPiece.PieceType.KING.ordinal();
+    private static final int QUEEN = ChessPiece.PieceType.QUEEN.ordinal();
+    private static final int BISHOP = ChessPiece.PieceType.BISHOP.ordinal();
+    private static final int KNIGHT = ChessPiece.PieceType.KNIGHT.ordinal();
+    private static final int ROOK = ChessPiece.PieceType.ROOK.ordinal();
+    private static final int PAWN = ChessPiece.PieceType.PAWN.ordinal();
+
+    /** The built-in weights */
+    public static final EvalWeights DEFAULT = defaults();
+
+    // Indexed by PieceType ordinal, then for the squares by square from white's side
+    private final int[] middlegameValues;
+    private final int[] endgameValues;
+    private final int[] phases;
+    // The phase of the starting position, where the middlegame weights count in full
+    private final int maxPhase;
+    private final int[][] middlegameSquares;
+    private final int[][] endgameSquares;
+    // Value plus square bonus by piece code and square, negated for black
+    private final int[][] middlegameTable = new int[12][64];
+    private final int[][] endgameTable = new int[12][64];
+
+    private EvalWeights(int[] middlegameValues, int[] endgameValues, int[] phases,
+                        int[][] middlegameSquares, int[][] endgameSquares) {
+        this.middlegameValues = middlegameValues;
+        this.endgameValues = endgameValues;
+        this.phases = phases;
+        this.maxPhase = 2 * (phases[KING] + phases[QUEEN]) + 4 * (phases[BISHOP] + phases[KNIGHT] + phases[ROOK])
+                + 16 * phases[PAWN];
+        this.middlegameSquares = middlegameSquares;
+        this.endgameSquares = endgameSquares;
+        for(int type = 0; type < 6; type++){
+            for(int square = 0; square < 64; square++){
+                middlegameTable[type][square] = middlegameValues[type] + middlegameSquares[type][square];
+                endgameTable[type][square] = endgameValues[type] + endgameSquares[type][square];
+                middlegameTable[6 + type][square ^ 56] = -middlegameTable[type][square];
+                endgameTable[6 + type][square ^ 56] = -endgameTable[type][square];
+            }
+        }
+    }
+
+    public int getMiddlegameValue(ChessPiece.PieceType type) {
+        return middlegameValues[type.ordinal()];
+    }
+
+    public int getEndgameValue(ChessPiece.PieceType type) {
+        return endgameValues[type.ordinal()];
+    }
+
+    /**
+     * @return how much one piece of the type counts toward the middlegame;
+     * the starting position adds up to {@link #getMaxPhase}
+     */
+    public int getPhase(ChessPiece.PieceType type) {
+        return phases[type.ordinal()];
+    }
+
+    /**
+     * @return the phase of the starting position: a board at this phase or
+     * above is scored with the middlegame weights alone, and one at 0 with the
+     * endgame weights alone
+     */
+    public int getMaxPhase() {
+        return maxPhase;
+    }
+
+    /**
+     * @param square square index from white's side; mirror it with
+     *               {@code square ^ 56} for black
+     */
+    public int getMiddlegameBonus(ChessPiece.PieceType type, int square) {
+        return middlegameSquares[type.ordinal()][square];
+    }
+
+    public int getEndgameBonus(ChessPiece.PieceType type, int square) {
+        return endgameSquares[type.ordinal()][square];
+    }
+
+    /**
+     * @return the middlegame value plus square bonus of a piece code on a
+     * square, from white's point of view
+     */
+    int middlegame(int code, int square) {
+        return middlegameTable[code][square];
+    }
+
+    int endgame(int code, int square) {
+        return endgameTable[code][square];
+    }
+
+    int phase(int type) {
+        return phases[type];
+    }
+
+    /**
+     * @return the middlegame value of a piece type by ordinal
+     */
+    int value(int type) {
+        return middlegameValues[type];
+    }
+
+    /**
+     * Reads a weights file
+     *
+     * @throws IOException              if the file cannot be read
+     * @throws IllegalArgumentException if the file is not valid
+     */
+    public static EvalWeights load(Path path) throws IOException {
+        try(var reader = Files.newBufferedReader(path)){
+            return parse(reader);
+        }
+    }
+
+    /**
+     * Reads weights in the file format. Entries that are left out keep their
+     * {@link #DEFAULT} values.
+     *
+     * @throws IOException              if the reader fails
+     * @throws IllegalArgumentException if the text is not valid
+     */
+    public static EvalWeights parse(Reader reader) throws IOException {
+        var weights = new EvalWeights(DEFAULT.middlegameValues.clone(), DEFAULT.endgameValues.clone(),
+                DEFAULT.phases.clone(), deepCopy(DEFAULT.middlegameSquares), deepCopy(DEFAULT.endgameSquares));
+        var lines = reader instanceof BufferedReader buffered ? buffered : new BufferedReader(reader);
+        int[] numbers = new int[64];
+        int count = 0;
+        String name = null;
+        int nameLine = 0;
+        int lineNumber = 0;
+        for(String line = lines.readLine(); line != null; line = lines.readLine()){
+            lineNumber++;
+            int comment = line.indexOf('#');
+            for(String token : (comment < 0 ? line : line.substring(0, comment)).trim().split("\\s+")){
+                if(token.isEmpty()){
+                    continue;
+                }
+                char first = token.charAt(0);
+                if(Character.isLetter(first)){
+                    if(name != null){
+                        weights.set(name, nameLine, numbers, count);
+                    }
+                    name = token;
+                    nameLine = lineNumber;
+                    count = 0;
+                } else if(name == null){
+                    throw new IllegalArgumentException("line " + lineNumber + ": number before any weight name");
+                } else if(count == numbers.length){
+                    throw new IllegalArgumentException("line " + lineNumber + ": too many numbers for " + name);
+                } else {
+                    try {
+                        numbers[count++] = Integer.parseInt(token);
+                    } catch(NumberFormatException e) {
+                        throw new IllegalArgumentException("line " + lineNumber + ": not a number: " + token);
+                    }
+                }
+            }
+        }
+        if(name != null){
+            weights.set(name, nameLine, numbers, count);
+        }
+        var parsed = new EvalWeights(weights.middlegameValues, weights.endgameValues, weights.phases,
+                weights.middlegameSquares, weights.endgameSquares);
+        if(parsed.maxPhase == 0){
+            throw new IllegalArgumentException("phases add up to 0, so there is nothing to taper between");
+        }
+        return parsed;
+    }
+
+    /**
+     * Stores one parsed entry. Only used while parsing, on weights that are
+     * rebuilt afterward so their tables match.
+     */
+    private void set(String name, int line, int[] numbers, int count) {
+        int dot = name.indexOf('.');
+        int type = dot < 0 ? -1 : typeOf(name.substring(0, dot));
+        String part = dot < 0 ? "" : name.substring(dot + 1);
+        int expected = switch(part){
+            case "value" -> 2;
+            case "phase" -> 1;
+            case "middlegame", "endgame" -> 64;
+            default -> -1;
+        };
+        if(type < 0 || expected < 0){
+            throw new IllegalArgumentException("line " + line + ": unknown weight " + name);
+        } else if(count != expected){
+            throw new IllegalArgumentException("line " + line + ": " + name + " needs " + expected
+                    + " numbers, found " + count);
+        } else if(part.equals("phase") && numbers[0] < 0){
+            throw new IllegalArgumentException("line " + line + ": " + name + " is negative");
+        }
+        switch(part){
+            case "value" -> {
+                middlegameValues[type] = numbers[0];
+                endgameValues[type] = numbers[1];
+            }
+            case "phase" -> phases[type] = numbers[0];
+            // written row 8 first, so the first number is a8
+            default -> {
+                int[] squares = part.equals("middlegame") ? middlegameSquares[type] : endgameSquares[type];
+                for(int i = 0; i < 64; i++){
+                    squares[i ^ 56] = numbers[i];
+                }
+            }
+        }
+    }
+
+    private static int typeOf(String name) {
+        for(var type : TYPES){
+            if(type.name().toLowerCase(Locale.ROOT).equals(name)){
+                return type.ordinal();
+            }
+        }
+        return -1;
+    }
+
+    private static int[][] deepCopy(int[][] arrays) {
+        int[][] copy = new int[arrays.length][];
+        for(int i = 0; i < arrays.length; i++){
+            copy[i] = arrays[i].clone();
+        }
+        return copy;
+    }
+
+    /**
+     * Writes every weight in the file format, so the result can be edited
+     * and read back with {@link #parse}
+     */
+    public void write(Appendable out) throws IOException {
+        out.append("# Evaluation weights in centipawns, from white's side of the board\n");
+        out.append("# <piece>.value: middlegame and endgame value\n");
+        out.append("# <piece>.phase: how much the piece counts toward the middlegame (the start adds up to ")
+                .append(Integer.toString(maxPhase)).append(")\n");
+        out.append("# <piece>.middlegame, <piece>.endgame: square bonuses, row 8 first\n");
+        for(int type = 0; type < 6; type++){
+            String name = TYPES[type].name().toLowerCase(Locale.ROOT);
+            out.append('\n').append(name).append(".value ").append(Integer.toString(middlegameValues[type]))
+                    .append(' ').append(Integer.toString(endgameValues[type])).append('\n');
+            out.append(name).append(".phase ").append(Integer.toString(phases[type])).append('\n');
+            writeSquares(out, name + ".middlegame", middlegameSquares[type]);
+            writeSquares(out, name + ".endgame", endgameSquares[type]);
+        }
+    }
+
+    @Override
+    public String toString() {
+        var out = new StringBuilder();
+        try {
+            write(out);
+        } catch(IOException e) {
+            throw new AssertionError(e);
+        }
+        return out.toString();
+    }
+
+    private static void writeSquares(Appendable out, String name, int[] squares) throws IOException {
+        out.append(name).append('\n');
+        for(int row = 7; row >= 0; row--){
+            for(int col = 0; col < 8; col++){
+                out.append(String.format(Locale.ROOT, "%5d", squares[row * 8 + col]));
+            }
+            out.append('\n');
+        }
+    }
+
+    private static EvalWeights defaults() {
+        int[] middlegameValues = new int[6];
+        int[] endgameValues = new int[6];
+        int[] phases = new int[6];
+        int[][] middlegameSquares = new int[6][64];
+        int[][] endgameSquares = new int[6][64];
+        setValues(KING, 0, 0, 0, middlegameValues, endgameValues, phases);
+        setValues(QUEEN, 1025, 936, 4, middlegameValues, endgameValues, phases);
+        setValues(BISHOP, 365, 297, 1, middlegameValues, endgameValues, phases);
+        setValues(KNIGHT, 337, 281, 1, middlegameValues, endgameValues, phases);
+        setValues(ROOK, 477, 512, 2, middlegameValues, endgameValues, phases);
+        setValues(PAWN, 82, 94, 0, middlegameValues, endgameValues, phases);
+
+        int[] kingShelter = {20, 30, 10, 0, 0, 10, 30, 20};
+        for(int square = 0; square < 64; square++){
+            int row = square >>> 3;
+            int col = square & 7;
+            // 0 in the corners up to 6 on the four middle squares
+            int center = (7 - Math.abs(2 * col - 7)) / 2 + (7 - Math.abs(2 * row - 7)) / 2;
+            boolean middleFile = col == 3 || col == 4;
+
+            middlegameSquares[KING][square] = row == 0 ? kingShelter[col] : -Math.min(15 * row, 60);
+            endgameSquares[KING][square] = 8 * center - 25;
+            middlegameSquares[QUEEN][square] = 2 * center - 5;
+            endgameSquares[QUEEN][square] = 4 * center - 10;
+            middlegameSquares[BISHOP][square] = 4 * center - 10;
+            endgameSquares[BISHOP][square] = 4 * center - 10;
+            middlegameSquares[KNIGHT][square] = 8 * center - 20;
+            endgameSquares[KNIGHT][square] = 6 * center - 15;
+            middlegameSquares[ROOK][square] = (row == 6 ? 20 : 0) + (middleFile ? 5 : 0);
+            endgameSquares[ROOK][square] = row == 6 ? 10 : 0;
+            if(row > 0 && row < 7){
+                middlegameSquares[PAWN][square] = 5 * (row - 1) + (middleFile && (row == 3 || row == 4) ? 10 : 0);
+                endgameSquares[PAWN][square] = 10 * (row - 1);
+            }
+        }
+        return new EvalWeights(middlegameValues, endgameValues, phases, middlegameSquares, endgameSquares);
+    }
+
+    private static void setValues(int type, int middlegame, int endgame, int phase,
+                                  int[] middlegameValues, int[] endgameValues, int[] phases) {
+        middlegameValues[type] = middlegame;
+        endgameValues[type] = endgame;
+        phases[type] = phase;
+    }
+}
@@ -0,0 +1,123 @@
+package chess.engine;
+
+import chess.ChessBoard;
+import chess.Move;
+
+import java.util.Arrays;
+
+/**
+ * Scores positions with {@link EvalWeights}: material and square bonuses,
+ * blended between their middlegame and endgame values by how much material
+ * is left.
+ * <p>
+ * Rather than look at the whole board for every score, an evaluator keeps
+ * running totals and adjusts them for each move, the way the board keeps
+ * its Zobrist key. {@link #reset} sets it up for a board; after that,
+ * call {@link #makeMove} just before each move is played on the board and
+ * {@link #unmakeMove} just after it is taken back. An evaluator is not
+ * thread-safe.
+ */
+public final class Evaluator {
+
+    private final EvalWeights weights;
+    // Running totals from white's point of view
+    private int middlegame;
+    private int endgame;
+    private int phase;
+    // The totals before each move made, three ints per move
+    private int[] saved = new int[3 * Search.MAX_PLY];
+    private int savedSize;
+
+    public Evaluator(EvalWeights weights) {
+        this.weights = weights;
+    }
+
+    public EvalWeights getWeights() {
+        return weights;
+    }
+
+    /**
+     * Computes the totals for a board from scratch and forgets any moves made
+     */
+    public void reset(ChessBoard board) {
+        middlegame = 0;
+        endgame = 0;
+        phase = 0;
+        savedSize = 0;
+        long occupied = board.getOccupied();
+        while(occupied != 0){
+            int square = Long.numberOfTrailingZeros(occupied);
+            int code = board.pieceAt(square);
+            middlegame += weights.middlegame(code, square);
+            endgame += weights.endgame(code, square);
+            phase += weights.phase(ChessBoard.typeOf(code));
+            occupied &= occupied - 1;
+        }
+    }
+
+    /**
+     * Updates the totals for a move that is about to be played
+     *
+     * @param board the board the move will be played on, still in the position before it
+     * @param move  a packed {@link Move}
+     */
+    public void makeMove(ChessBoard board, int move) {
+        if(savedSize == saved.length){
+            saved = Arrays.copyOf(saved, saved.length * 2);
+        }
+        saved[savedSize++] = middlegame;
+        saved[savedSize++] = endgame;
+        saved[savedSize++] = phase;
+
+        int from = Move.from(move);
+        int to = Move.to(move);
+        int moved = board.pieceAt(from);
+        int captured = board.pieceAt(to);
+        int promotion = Move.promotion(move);
+        int placed = promotion < 0 ? moved : ChessBoard.colorOf(moved) * 6 + promotion;
+        middlegame += weights.middlegame(placed, to) - weights.middlegame(moved, from);
+        endgame += weights.endgame(placed, to) - weights.endgame(moved, from);
+        if(promotion >= 0){
+            phase += weights.phase(promotion) - weights.phase(ChessBoard.typeOf(moved));
+        }
+        if(captured != ChessBoard.EMPTY){
+            middlegame -= weights.middlegame(captured, to);
+            endgame -= weights.endgame(captured, to);
+            phase -= weights.phase(ChessBoard.typeOf(captured));
+        }
+    }
+
+    /**
+     * Puts the totals back as they were before the last {@link #makeMove}
+     *
+     * @throws IllegalStateException if there is no move to take back
+     */
+    public void unmakeMove() {
+        if(savedSize == 0){
+            throw new IllegalStateException("No move to unmake");
+        }
+        phase = saved[--savedSize];
+        endgame = saved[--savedSize];
+        middlegame = saved[--savedSize];
+    }
+
+    /**
+     * @param colorIndex the side to score for, 0 white or 1 black
+     * @return the score in centipawns, positive when that side is ahead
+     */
+    public int evaluate(int colorIndex) {
+        // promotions can push the phase past the starting position's
+        int maxPhase = weights.getMaxPhase();
+        int weight = Math.min(phase, maxPhase);
+        int score = (middlegame * weight + endgame * (maxPhase - weight)) / maxPhase;
+        return colorIndex == 0 ? score : -score;
+    }
+
+    /**
+     * @return how much material is left, from 0 in a bare endgame to
+     * {@link EvalWeights#getMaxPhase} at the start
+     */
+    public int getPhase() {
+        return Math.min(phase, weights.getMaxPhase());
+    }
+}
@@ -0,0 +1,217 @@
+package chess.engine;
+
+import chess.ChessBoard;
+import chess.ChessPiece;
+import chess.Move;
+import chess.MoveList;
+
+import java.util.Arrays;
+
+/**
+ * Puts the moves of a position in the order an alpha-beta search should try
+ * them, best first, so cut-offs come as early as possible:
+ * <ol>
+ *     <li>the move the caller expects to be best, such as a transposition table move</li>
+ *     <li>captures and capturing promotions that do not lose material by
+ *     {@link StaticExchange}, most valuable victim first and then least
+ *     valuable attacker first (MVV-LVA), and promotions to a queen</li>
+ *     <li>the two killer moves of the ply: quiet moves that recently caused a
+ *     cut-off at the same distance from the root</li>
+ *     <li>other quiet moves, by history: how much cutting off with the same
+ *     piece moving to the same square has been worth so far</li>
+ *     <li>captures that lose material</li>
+ * </ol>
+ * Moves are scored once with {@link #score} and then taken one at a time with
+ * {@link #next}, so when the first move cuts off the rest are never sorted.
+ * The search reports its cut-offs to {@link #recordCutoff}. An orderer is
+ * not thread-safe.
+ * <p>
+ * An orderer may be given a noise seed, which adds a small random amount to
+ * every quiet move's score. Searches sharing a transposition table then try
+ * quiet moves in different orders and fill in different parts of the tree.
+ */
+public final class MoveOrderer {
+
+    private static final int PREFERRED = 1 << 30;
+    private static final int GOOD_CAPTURE = 1 << 28;
+    private static final int KILLER = 1 << 26;
+    // Losing captures go below every quiet move, whose history is never negative
+    private static final int BAD_CAPTURE = -(1 << 20);
+    // History is halved across the board once any entry passes this, keeping it below KILLER
+    private static final int HISTORY_LIMIT = 1 << 24;
+    private static final int QUEEN = ChessPiece.PieceType.QUEEN.ordinal();
+    // MVV-LVA rank of each PieceType by ordinal: pawn lowest, king highest
+    private static final int[] RANK = {6, 5, 3, 2, 4, 1};
+    private static final int NOISE_MASK = 0x3F;
+
+    private final int[][] killers;
+    private final int[][] history = new int[12][64];
+    private int[][] scores;
+    // xorshift state for the quiet move noise, 0 for none
+    private long noise;
+
+    /**
+     * @param maxPly the deepest ply moves will be ordered at, plus one
+     */
+    public MoveOrderer(int maxPly) {
+        this(maxPly, 0);
+    }
+
+    /**
+     * @param maxPly    the deepest ply moves will be ordered at, plus one
+     * @param noiseSeed seeds the random changes to quiet move scores, or 0 for none
+     */
+    public MoveOrderer(int maxPly, long noiseSeed) {
+        this.killers = new int[maxPly][2];
+        this.scores = new int[maxPly][256];
+        this.noise = noiseSeed;
+    }
+
+    /**
+     * Forgets the killer moves and halves the history, ready for a new
+     * search. History carries over because what cut off in the last search
+     * is a good guess for the next.
+     */
+    public void newSearch() {
+        for(int[] ply : killers){
+            Arrays.fill(ply, Move.NONE);
+        }
+        ageHistory();
+    }
+
+    /**
+     * Forgets everything learned
+     */
+    public void clear() {
+        for(int[] ply : killers){
+            Arrays.fill(ply, Move.NONE);
+        }
+        for(int[] squares : history){
+            Arrays.fill(squares, 0);
+        }
+    }
+
+    /**
+     * Scores the moves of a position, ready for {@link #next}
+     *
+     * @param board     the position the moves are for
+     * @param moves     the moves, which {@link #next} reorders in place
+     * @param ply       the distance from the root, which keys the killer moves and the scores
+     * @param preferred a move to try first, or {@link Move#NONE}
+     */
+    public void score(ChessBoard board, MoveList moves, int ply, int preferred) {
+        if(moves.size() > scores[ply].length){
+            scores[ply] = new int[moves.size()];
+        }
+        int[] plyScores = scores[ply];
+        int[] plyKillers = killers[ply];
+        for(int i = 0; i < moves.size(); i++){
+            int move = moves.get(i);
+            int score;
+            if(move == preferred){
+                score = PREFERRED;
+            } else if(board.pieceAt(Move.to(move)) != ChessBoard.EMPTY){
+                score = mvvLva(board, move) + (isLosing(board, move) ? BAD_CAPTURE : GOOD_CAPTURE);
+            } else if(Move.promotion(move) == QUEEN){
+                score = GOOD_CAPTURE;
+            } else if(move == plyKillers[0]){
+                score = KILLER + 1;
+            } else if(move == plyKillers[1]){
+                score = KILLER;
+            } else {
+                score = history[board.pieceAt(Move.from(move))][Move.to(move)];
+                if(noise != 0){
+                    noise ^= noise << 13;
+                    noise ^= noise >>> 7;
+                    noise ^= noise << 17;
+                    score += (int) noise & NOISE_MASK;
+                }
+            }
+            plyScores[i] = score;
+        }
+    }
+
+    /**
+     * Swaps the best scored move at or after an index into that index
+     *
+     * @param index how many moves have been taken already
+     * @return the move now at the index
+     */
+    public int next(MoveList moves, int ply, int index) {
+        int[] plyScores = scores[ply];
+        int best = index;
+        for(int i = index + 1; i < moves.size(); i++){
+            if(plyScores[i] > plyScores[best]){
+                best = i;
+            }
+        }
+        if(best != index){
+            moves.swap(index, best);
+            int score = plyScores[index];
+            plyScores[index] = plyScores[best];
+            plyScores[best] = score;
+        }
+        return moves.get(index);
+    }
+
+    /**
+     * @return the score {@link #next} ranked the move at an index by; negative
+     * for a capture that loses material
+     */
+    public int scoreAt(int ply, int index) {
+        return scores[ply][index];
+    }
+
+    /**
+     * Learns from a move that caused a beta cut-off. Only quiet moves are
+     * remembered, since captures are ordered well enough already.
+     *
+     * @param board the position the move was made from
+     * @param depth the remaining depth the move was searched to, which
+     *              weights its history: cut-offs high in the tree save more
+     */
+    public void recordCutoff(ChessBoard board, int move, int ply, int depth) {
+        if(board.pieceAt(Move.to(move)) != ChessBoard.EMPTY || Move.promotion(move) == QUEEN){
+            return;
+        }
+        int[] plyKillers = killers[ply];
+        if(plyKillers[0] != move){
+            plyKillers[1] = plyKillers[0];
+            plyKillers[0] = move;
+        }
+        int[] squares = history[board.pieceAt(Move.from(move))];
+        squares[Move.to(move)] += depth * depth;
+        if(squares[Move.to(move)] > HISTORY_LIMIT){
+            ageHistory();
+        }
+    }
+
+    /**
+     * @return the MVV-LVA rank of a capture: higher for a more valuable
+     * victim, and for the same victim, higher for a less valuable attacker
+     */
+    public static int mvvLva(ChessBoard board, int move) {
+        int victim = board.pieceAt(Move.to(move));
+        int attacker = board.pieceAt(Move.from(move));
+        return (victim == ChessBoard.EMPTY ? 0 : RANK[ChessBoard.typeOf(victim)] * 8)
+                - RANK[ChessBoard.typeOf(attacker)];
+    }
+
+    /**
+     * A capture can only lose material when the attacker is worth more than
+     * its victim, so the exchange is only worked out then
+     */
+    private static boolean isLosing(ChessBoard board, int move) {
+        int attacker = StaticExchange.VALUES[ChessBoard.typeOf(board.pieceAt(Move.from(move)))];
+        int victim = StaticExchange.VALUES[ChessBoard.typeOf(board.pieceAt(Move.to(move)))];
+        return attacker > victim && StaticExchange.evaluate(board, move) < 0;
+    }
+
+    private void ageHistory() {
+        for(int[] squares : history){
+            for(int i = 0; i < squares.length; i++){
+                squares[i] >>= 1;
+            }
+        }
+    }
+}
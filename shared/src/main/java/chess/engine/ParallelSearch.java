@@ -0,0 +1,208 @@
+package chess.engine;
+
+import chess.ChessGame;
+import chess.Fen;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * Searches one position on several threads at once, Lazy SMP style.
+ * <p>
+ * Every thread runs an ordinary {@link Search} of the same root, and all of
+ * them share one {@link TranspositionTable}. The helpers start at staggered
+ * depths, so they fill the table with results the main search then finds
+ * instead of searching. The main search runs on the calling thread and
+ * decides the answer; once it finishes, the helpers are stopped. With one
+ * thread no helper is started, and the search is exactly a plain
+ * {@link Search} on the caller's thread, deterministic for a given table.
+ * <p>
+ * One search may run at a time per instance. Any thread may call
+ * {@link #stop()} to end it early.
+ */
+public final class ParallelSearch {
+
+    /**
+     * The kind of thread helpers run on
+     */
+    public enum ThreadKind {
+        PLATFORM,
+        VIRTUAL
+    }
+
+    private static final int DEFAULT_TABLE_MEGABYTES = 64;
+
+    private final ThreadKind threadKind;
+    private final TranspositionTable table;
+    private final AtomicBoolean stopped = new AtomicBoolean();
+    private final Search main;
+    private final Search[] helpers;
+
+    /**
+     * Creates a search on platform threads with its own 64 MB transposition table
+     *
+     * @param threads how many threads to search on, including the caller's
+     */
+    public ParallelSearch(int threads) {
+        this(threads, ThreadKind.PLATFORM, new TranspositionTable(DEFAULT_TABLE_MEGABYTES));
+    }
+
+    /**
+     * @param threads    how many threads to search on, including the caller's
+     * @param threadKind whether helpers run on platform or virtual threads
+     * @param table      the transposition table all threads share
+     */
+    public ParallelSearch(int threads, ThreadKind threadKind, TranspositionTable table) {
+        this(threads, threadKind, table, EvalWeights.DEFAULT);
+    }
+
+    /**
+     * @param threads    how many threads to search on, including the caller's
+     * @param threadKind whether helpers run on platform or virtual threads
+     * @param table      the transposition table all threads share
+     * @param weights    how every thread scores positions
+     */
+    public ParallelSearch(int threads, ThreadKind threadKind, TranspositionTable table, EvalWeights weights) {
+        if(threads < 1){
+            throw new IllegalArgumentException("A search needs at least one thread");
+        }
+        this.threadKind = threadKind;
+        this.table = table;
+        this.main = new Search(table, weights, stopped, false, false, 1, 0);
+        this.helpers = new Search[threads - 1];
+        for(int i = 0; i < helpers.length; i++){
+            helpers[i] = helper(table, weights, stopped, i);
+        }
+    }
+
+    /**
+     * Creates the helper with the given index. Helpers start at depths 2 to
+     * 4 in turn, never the main search's 1, and each orders quiet moves with
+     * its own noise. No two threads follow the same schedule and move order.
+     */
+    static Search helper(TranspositionTable table, EvalWeights weights, AtomicBoolean stopped, int index) {
+        return new Search(table, weights, stopped, false, true, 2 + index % 3, index + 1);
+    }
+
+    public int getThreads() {
+        return helpers.length + 1;
+    }
+
+    public TranspositionTable getTranspositionTable() {
+        return table;
+    }
+
+    public SearchResult search(ChessGame game, SearchLimits limits) {
+        return search(game, limits, result -> {
+        });
+    }
+
+    /**
+     * Searches the position until the limits run out or {@link #stop()} is
+     * called. The node budget applies to the main search only.
+     *
+     * @param game        the position to search, which is copied and left unchanged
+     * @param limits      when to stop
+     * @param onIteration called on this thread with every iteration the main search finishes
+     * @return the main search's result, with the nodes of every thread added up
+     */
+    public SearchResult search(ChessGame game, SearchLimits limits, Consumer<SearchResult> onIteration) {
+        table.newSearch();
+        var helperLimits = SearchLimits.depth(limits.getDepth());
+        Thread[] threads = new Thread[helpers.length];
+        for(int i = 0; i < helpers.length; i++){
+            var helper = helpers[i];
+            Runnable work = () -> helper.search(game, helperLimits);
+            threads[i] = threadKind == ThreadKind.VIRTUAL
+                    ? Thread.ofVirtual().name("search-helper-" + i).start(work)
+                    : Thread.ofPlatform().name("search-helper-" + i).daemon().start(work);
+        }
+        SearchResult result;
+        try {
+            result = main.search(game, limits, onIteration);
+        } finally {
+            stopped.set(true);
+            joinAll(threads);
+            // cleared only now, so a stop() sent before the search started is not lost
+            stopped.set(false);
+        }
+        long nodes = main.getNodes();
+        for(var helper : helpers){
+            nodes += helper.getNodes();
+        }
+        return new SearchResult(result.getBestMove(), result.getScore(), result.getDepth(), nodes,
+                result.getElapsedNanos(), result.getPrincipalVariation());
+    }
+
+    /**
+     * Asks a running search to finish as soon as possible. A stop that comes
+     * while no search is running is kept for the next one, so a stop sent
+     * just before a search starts is never lost; {@link #reset()} discards it.
+     */
+    public void stop() {
+        stopped.set(true);
+    }
+
+    /**
+     * Discards a {@link #stop()} made while no search was running
+     */
+    public void reset() {
+        stopped.set(false);
+    }
+
+    /**
+     * Waits for the helpers to see the stop flag, keeping the caller's
+     * interrupt status for it to deal with afterwards
+     */
+    private static void joinAll(Thread[] threads) {
+        boolean interrupted = false;
+        for(var thread : threads){
+            while(true){
+                try {
+                    thread.join();
+                    break;
+                } catch(InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        }
+        if(interrupted){
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Prints how nodes per second scale with threads: run
+     * {@code ParallelSearch [millis] [maxThreads] [virtual] [fen]} to search
+     * the position, or the start position, for the given time with 1, 2, 4
+     * ... up to maxThreads threads.
+     */
+    public static void main(String[] args) {
+        long millis = args.length > 0 ? Long.parseLong(args[0]) : 2000;
+        int maxThreads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        boolean virtual = args.length > 2 && args[2].equals("virtual");
+        int fenStart = virtual ? 3 : 2;
+        var game = args.length > fenStart
+                ? Fen.parse(String.join(" ", List.of(args).subList(fenStart, args.length)))
+                : new ChessGame();
+
+        // warm the JIT up first, or the one-thread run pays for compilation
+        new ParallelSearch(1).search(game, SearchLimits.timeMillis(millis));
+        long baseline = 1;
+        for(int threads = 1; ; threads = Math.min(threads * 2, maxThreads)){
+            var search = new ParallelSearch(threads, virtual ? ThreadKind.VIRTUAL : ThreadKind.PLATFORM,
+                    new TranspositionTable(DEFAULT_TABLE_MEGABYTES));
+            var result = search.search(game, SearchLimits.timeMillis(millis));
+            long nps = result.getNodesPerSecond();
+            if(threads == 1){
+                baseline = Math.max(nps, 1);
+            }
+            System.out.printf("threads %2d: %,d nodes/sec (%.2fx), %s%n", threads, nps, (double) nps / baseline,
+                    result);
+            if(threads >= maxThreads){
+                break;
+            }
+        }
+    }
+}
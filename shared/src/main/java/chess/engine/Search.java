@@ -0,0 +1,434 @@
+package chess.engine;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.Move;
+import chess.MoveGenerator;
+import chess.MoveList;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * Finds the best move in a position with iterative deepening and principal
+ * variation search, a form of alpha-beta.
+ * <p>
+ * Each iteration searches one ply deeper than the last. It tries the
+ * previous best line first, which makes the cut-offs in the deeper search
+ * much more effective, and orders the other moves with a {@link MoveOrderer}.
+ * At the end of each line, a quiescence search plays out captures until the
+ * position is quiet, so no position is scored halfway through an exchange.
+ * Positions are scored by an {@link Evaluator} kept up to date move by move.
+ * Results are cached in a {@link TranspositionTable}, which may be shared
+ * with other searches, so positions reached again by another move order, or
+ * in a later search, are not searched twice. The
+ * search always runs on its own copy of the game,
+ * so the caller's game is never touched. A {@code Search} keeps working
+ * state between calls and is not thread-safe: use one per thread. Another
+ * thread may call {@link #stop()} to end a running search early.
+ */
+public class Search {
+
+    /** Score of being mated right now; mate in n plies scores MATE - n */
+    public static final int MATE = 32000;
+
+    static final int INFINITY = MATE + 1;
+    static final int MAX_PLY = SearchLimits.MAX_DEPTH * 2;
+
+    // How many nodes to visit between looks at the clock
+    private static final int CLOCK_INTERVAL = 1024;
+    private static final int DEFAULT_TABLE_MEGABYTES = 16;
+
+    private final MoveList[] moveLists = new MoveList[MAX_PLY];
+    private final int[][] pv = new int[MAX_PLY][MAX_PLY];
+    private final int[] pvLength = new int[MAX_PLY];
+    // The previous iteration's principal variation, tried first by the next one
+    private final int[] previousPv = new int[MAX_PLY];
+    private int previousPvLength;
+    // The moves made from the root to reach each ply
+    private final int[] line = new int[MAX_PLY];
+    private final TranspositionTable table;
+    private final Evaluator evaluator;
+    private final MoveOrderer orderer;
+    // Set to end the search; shared by every thread of a ParallelSearch
+    private final AtomicBoolean stopped;
+    // A standalone search manages its own stop flag and table generation
+    private final boolean standalone;
+    // Lazy SMP helpers may stop at any time and start at a different depth
+    private final boolean helper;
+    private final int startDepth;
+
+    private ChessGame game;
+    private long nodes;
+    private long nodeLimit;
+    private long deadline;
+    private boolean mayAbort;
+    private boolean aborted;
+
+    /**
+     * Creates a search with its own 16 MB transposition table
+     */
+    public Search() {
+        this(new TranspositionTable(DEFAULT_TABLE_MEGABYTES));
+    }
+
+    /**
+     * @param table the transposition table to use, which may be shared with other searches
+     */
+    public Search(TranspositionTable table) {
+        this(table, EvalWeights.DEFAULT);
+    }
+
+    /**
+     * @param table   the transposition table to use, which may be shared with other searches
+     * @param weights how to score positions
+     */
+    public Search(TranspositionTable table, EvalWeights weights) {
+        this(table, weights, new AtomicBoolean(), true, false, 1, 0);
+    }
+
+    /**
+     * @param stopped    the flag that ends the search
+     * @param standalone whether each search clears the flag as it finishes
+     *                   and starts a new table generation; when searches
+     *                   share a table and flag, their owner does both
+     * @param helper     whether even the first iteration may be cut short
+     * @param startDepth the depth of the first iteration
+     * @param noiseSeed  seeds random changes to the order of quiet moves, so
+     *                   helpers search different trees; 0 for none
+     */
+    Search(TranspositionTable table, EvalWeights weights, AtomicBoolean stopped, boolean standalone, boolean helper,
+           int startDepth, long noiseSeed) {
+        this.table = table;
+        this.evaluator = new Evaluator(weights);
+        this.orderer = new MoveOrderer(MAX_PLY, noiseSeed);
+        this.stopped = stopped;
+        this.standalone = standalone;
+        this.helper = helper;
+        this.startDepth = startDepth;
+        for(int i = 0; i < MAX_PLY; i++){
+            moveLists[i] = new MoveList();
+        }
+    }
+
+    public TranspositionTable getTranspositionTable() {
+        return table;
+    }
+
+    public EvalWeights getWeights() {
+        return evaluator.getWeights();
+    }
+
+    /**
+     * Searches the position until the limits run out
+     *
+     * @param game   the position to search, which is copied and left unchanged
+     * @param limits when to stop
+     * @return the result of the deepest iteration that finished
+     */
+    public SearchResult search(ChessGame game, SearchLimits limits) {
+        return search(game, limits, result -> {
+        });
+    }
+
+    /**
+     * Searches the position until the limits run out, reporting each
+     * finished iteration as it goes
+     *
+     * @param onIteration called with the result of every finished iteration
+     */
+    public SearchResult search(ChessGame game, SearchLimits limits, Consumer<SearchResult> onIteration) {
+        try {
+            return iterate(game, limits, onIteration);
+        } finally {
+            if(standalone){
+                stopped.set(false);
+            }
+        }
+    }
+
+    private SearchResult iterate(ChessGame game, SearchLimits limits, Consumer<SearchResult> onIteration) {
+        long start = System.nanoTime();
+        this.game = new ChessGame(game);
+        evaluator.reset(this.game.getBoard());
+        this.nodes = 0;
+        this.nodeLimit = limits.getNodes() == 0 ? Long.MAX_VALUE : limits.getNodes();
+        this.deadline = limits.getTimeMillis() == 0 ? Long.MAX_VALUE : start + limits.getTimeMillis() * 1_000_000;
+        this.aborted = false;
+        this.previousPvLength = 0;
+        if(standalone){
+            table.newSearch();
+        }
+        orderer.newSearch();
+        // the first iteration always finishes, so there is a move to return
+        this.mayAbort = helper;
+
+        var root = new MoveList();
+        MoveGenerator.generateLegal(this.game.getBoard(), this.game.getTeamTurn().ordinal(), root);
+        if(root.isEmpty()){
+            int score = this.game.isInCheck(this.game.getTeamTurn()) ? -MATE : 0;
+            return new SearchResult(null, score, 0, 0, System.nanoTime() - start, List.of());
+        }
+
+        var first = Move.toChessMove(root.get(0));
+        var best = new SearchResult(first, 0, 0, 0, 0, List.of(first));
+        for(int depth = Math.min(startDepth, limits.getDepth()); depth <= limits.getDepth(); depth++){
+            int score = search(depth, 0, -INFINITY, INFINITY);
+            if(aborted){
+                break;
+            }
+            previousPvLength = pvLength[0];
+            System.arraycopy(pv[0], 0, previousPv, 0, previousPvLength);
+            best = new SearchResult(Move.toChessMove(pv[0][0]), score, depth, nodes, System.nanoTime() - start,
+                    principalVariation());
+            onIteration.accept(best);
+            mayAbort = true;
+            if(Math.abs(score) >= MATE - depth){
+                break;
+            }
+        }
+        return new SearchResult(best.getBestMove(), best.getScore(), best.getDepth(), nodes,
+                System.nanoTime() - start, best.getPrincipalVariation());
+    }
+
+    /**
+     * Asks a running search to finish as soon as possible. It returns the
+     * best move of the last iteration that finished. A stop that comes while
+     * no search is running is kept for the next one, so a stop sent just
+     * before a search starts is never lost; {@link #reset()} discards it.
+     */
+    public void stop() {
+        stopped.set(true);
+    }
+
+    /**
+     * Discards a {@link #stop()} made while no search was running
+     */
+    public void reset() {
+        stopped.set(false);
+    }
+
+    /**
+     * @return the number of positions visited by the last or current search
+     */
+    public long getNodes() {
+        return nodes;
+    }
+
+    private int search(int depth, int ply, int alpha, int beta) {
+        if(depth <= 0){
+            return quiesce(ply, alpha, beta);
+        }
+        pvLength[ply] = ply;
+        if(limitReached()){
+            return 0;
+        }
+        int color = game.getTeamTurn().ordinal();
+        var board = game.getBoard();
+        if(ply > 0 && isDraw(board)){
+            return 0;
+        }
+        if(ply >= MAX_PLY - 1){
+            return evaluator.evaluate(color);
+        }
+        int king = board.kingSquare(color);
+        boolean inCheck = king >= 0 && board.isSquareAttacked(king, color ^ 1);
+        if(inCheck){
+            depth++;
+        }
+
+        long key = game.getZobristKey();
+        long entry = table.probe(key);
+        int tableMove = TranspositionTable.move(entry);
+        if(entry != 0 && ply > 0 && beta - alpha == 1 && TranspositionTable.depth(entry) >= depth){
+            int score = scoreFromTable(TranspositionTable.score(entry), ply);
+            int bound = TranspositionTable.bound(entry);
+            if(bound == TranspositionTable.EXACT || (bound == TranspositionTable.LOWER && score >= beta)
+                    || (bound == TranspositionTable.UPPER && score <= alpha)){
+                return score;
+            }
+        }
+
+        var moves = moveLists[ply];
+        moves.clear();
+        MoveGenerator.generateLegal(board, color, moves);
+        if(moves.isEmpty()){
+            return inCheck ? -MATE + ply : 0;
+        }
+        int pvMove = ply < previousPvLength && isOnPv(ply) ? previousPv[ply] : Move.NONE;
+        orderer.score(board, moves, ply, pvMove != Move.NONE ? pvMove : tableMove);
+
+        int originalAlpha = alpha;
+        int bestMove = Move.NONE;
+
+        for(int i = 0; i < moves.size(); i++){
+            int move = orderer.next(moves, ply, i);
+            line[ply] = move;
+            evaluator.makeMove(board, move);
+            game.makeMove(move);
+            int score;
+            if(i == 0){
+                score = -search(depth - 1, ply + 1, -beta, -alpha);
+            } else {
+                score = -search(depth - 1, ply + 1, -alpha - 1, -alpha);
+                if(score > alpha && score < beta){
+                    score = -search(depth - 1, ply + 1, -beta, -alpha);
+                }
+            }
+            game.unmakeMove();
+            evaluator.unmakeMove();
+            if(aborted){
+                return 0;
+            }
+            if(score > alpha){
+                alpha = score;
+                bestMove = move;
+                updatePv(ply, move);
+                if(alpha >= beta){
+                    orderer.recordCutoff(board, move, ply, depth);
+                    break;
+                }
+            }
+        }
+        int bound = alpha >= beta ? TranspositionTable.LOWER
+                : alpha > originalAlpha ? TranspositionTable.EXACT : TranspositionTable.UPPER;
+        table.store(key, bestMove, scoreToTable(alpha, ply), depth, bound);
+        return alpha;
+    }
+
+    /**
+     * Searches only captures, or every move when in check, until the side to
+     * move has nothing it wants to take. Unless in check, the side to move may
+     * instead stand pat on the static score, since some quiet move is almost
+     * always at least as good. Captures that lose material by
+     * {@link StaticExchange} are not tried.
+     */
+    private int quiesce(int ply, int alpha, int beta) {
+        pvLength[ply] = ply;
+        if(limitReached()){
+            return 0;
+        }
+        int color = game.getTeamTurn().ordinal();
+        var board = game.getBoard();
+        if(isDraw(board)){
+            return 0;
+        }
+        if(ply >= MAX_PLY - 1){
+            return evaluator.evaluate(color);
+        }
+        int king = board.kingSquare(color);
+        boolean inCheck = king >= 0 && board.isSquareAttacked(king, color ^ 1);
+        var moves = moveLists[ply];
+        moves.clear();
+        if(inCheck){
+            MoveGenerator.generateLegal(board, color, moves);
+            if(moves.isEmpty()){
+                return -MATE + ply;
+            }
+        } else {
+            int standPat = evaluator.evaluate(color);
+            if(standPat >= beta){
+                return standPat;
+            }
+            alpha = Math.max(alpha, standPat);
+            MoveGenerator.generateLegalCaptures(board, color, moves);
+        }
+        orderer.score(board, moves, ply, Move.NONE);
+
+        for(int i = 0; i < moves.size(); i++){
+            int move = orderer.next(moves, ply, i);
+            // losing captures come last, so once one turns up the rest lose too
+            if(!inCheck && orderer.scoreAt(ply, i) < 0){
+                break;
+            }
+            evaluator.makeMove(board, move);
+            game.makeMove(move);
+            int score = -quiesce(ply + 1, -beta, -alpha);
+            game.unmakeMove();
+            evaluator.unmakeMove();
+            if(aborted){
+                return 0;
+            }
+            if(score > alpha){
+                alpha = score;
+                if(alpha >= beta){
+                    break;
+                }
+            }
+        }
+        return alpha;
+    }
+
+    /**
+     * Counts a node and checks the limits
+     *
+     * @return True if the search has been cut short and should unwind
+     */
+    private boolean limitReached() {
+        if(++nodes >= nodeLimit || (nodes % CLOCK_INTERVAL == 0 && System.nanoTime() >= deadline) || stopped.get()){
+            aborted = mayAbort;
+        }
+        return aborted;
+    }
+
+    /**
+     * Mate scores count plies from the root; the table stores them counted
+     * from the position itself, so they stay right wherever it is reached
+     */
+    private static int scoreToTable(int score, int ply) {
+        if(score >= MATE - MAX_PLY){
+            return score + ply;
+        } else if(score <= -MATE + MAX_PLY){
+            return score - ply;
+        }
+        return score;
+    }
+
+    private static int scoreFromTable(int score, int ply) {
+        if(score >= MATE - MAX_PLY){
+            return score - ply;
+        } else if(score <= -MATE + MAX_PLY){
+            return score + ply;
+        }
+        return score;
+    }
+
+    /**
+     * Draws that end the line no matter what follows: a repeated position,
+     * the fifty-move rule or too little material to mate
+     */
+    private boolean isDraw(ChessBoard board) {
+        return game.getRepetitionCount() > 1 || game.getHalfmoveClock() >= 100 || board.hasInsufficientMaterial();
+    }
+
+    /**
+     * @return True if the moves made to reach this ply are the start of the
+     * previous iteration's principal variation
+     */
+    private boolean isOnPv(int ply) {
+        for(int i = 0; i < ply; i++){
+            if(line[i] != previousPv[i]){
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void updatePv(int ply, int move) {
+        pv[ply][ply] = move;
+        int length = pvLength[ply + 1];
+        System.arraycopy(pv[ply + 1], ply + 1, pv[ply], ply + 1, length - ply - 1);
+        pvLength[ply] = Math.max(length, ply + 1);
+    }
+
+    private List<ChessMove> principalVariation() {
+        List<ChessMove> line = new ArrayList<>(pvLength[0]);
+        for(int i = 0; i < pvLength[0]; i++){
+            line.add(Move.toChessMove(pv[0][i]));
+        }
+        return line;
+    }
+}
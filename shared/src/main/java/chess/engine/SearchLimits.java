@@ -0,0 +1,88 @@
+package chess.engine;
+
+/**
+ * How long a {@link Search} may run: a maximum depth, a time budget and a
+ * node budget. Whichever runs out first ends the search. Instances are
+ * immutable; the {@code with} methods return a changed copy.
+ */
+public final class SearchLimits {
+
+    /** The deepest a search will ever go, in plies */
+    public static final int MAX_DEPTH = 64;
+
+    private static final SearchLimits NONE = new SearchLimits(MAX_DEPTH, 0, 0);
+
+    private final int depth;
+    private final long timeMillis;
+    private final long nodes;
+
+    private SearchLimits(int depth, long timeMillis, long nodes) {
+        if(depth < 1 || timeMillis < 0 || nodes < 0){
+            throw new IllegalArgumentException("Invalid search limits: depth " + depth + ", time " + timeMillis
+                    + " ms, nodes " + nodes);
+        }
+        this.depth = Math.min(depth, MAX_DEPTH);
+        this.timeMillis = timeMillis;
+        this.nodes = nodes;
+    }
+
+    /**
+     * @return limits that stop only at {@link #MAX_DEPTH}
+     */
+    public static SearchLimits none() {
+        return NONE;
+    }
+
+    public static SearchLimits depth(int depth) {
+        return NONE.withDepth(depth);
+    }
+
+    public static SearchLimits timeMillis(long timeMillis) {
+        return NONE.withTimeMillis(timeMillis);
+    }
+
+    public static SearchLimits nodes(long nodes) {
+        return NONE.withNodes(nodes);
+    }
+
+    public SearchLimits withDepth(int depth) {
+        return new SearchLimits(depth, timeMillis, nodes);
+    }
+
+    /**
+     * @param timeMillis wall-clock budget in milliseconds, or 0 for none
+     */
+    public SearchLimits withTimeMillis(long timeMillis) {
+        return new SearchLimits(depth, timeMillis, nodes);
+    }
+
+    /**
+     * @param nodes how many positions the search may visit, or 0 for no limit
+     */
+    public SearchLimits withNodes(long nodes) {
+        return new SearchLimits(depth, timeMillis, nodes);
+    }
+
+    public int getDepth() {
+        return depth;
+    }
+
+    /**
+     * @return the time budget in milliseconds, 0 if there is none
+     */
+    public long getTimeMillis() {
+        return timeMillis;
+    }
+
+    /**
+     * @return the node budget, 0 if there is none
+     */
+    public long getNodes() {
+        return nodes;
+    }
+
+    @Override
+    public String toString() {
+        return "SearchLimits{depth=" + depth + ", timeMillis=" + timeMillis + ", nodes=" + nodes + '}';
+    }
+}
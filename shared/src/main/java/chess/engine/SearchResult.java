@@ -0,0 +1,97 @@
+package chess.engine;
+
+import chess.ChessMove;
+import chess.Move;
+
+import java.util.List;
+
+/**
+ * What a {@link Search} found: the best move, its score, and the line of
+ * play it expects, the principal variation, plus how much work it took.
+ * Scores are in centipawns from the point of view of the side to move.
+ */
+public final class SearchResult {
+
+    private final ChessMove bestMove;
+    private final int score;
+    private final int depth;
+    private final long nodes;
+    private final long elapsedNanos;
+    private final List<ChessMove> principalVariation;
+
+    SearchResult(ChessMove bestMove, int score, int depth, long nodes, long elapsedNanos,
+                 List<ChessMove> principalVariation) {
+        this.bestMove = bestMove;
+        this.score = score;
+        this.depth = depth;
+        this.nodes = nodes;
+        this.elapsedNanos = elapsedNanos;
+        this.principalVariation = List.copyOf(principalVariation);
+    }
+
+    /**
+     * @return the move to play, or null if the side to move has none
+     */
+    public ChessMove getBestMove() {
+        return bestMove;
+    }
+
+    public int getScore() {
+        return score;
+    }
+
+    /**
+     * @return the deepest iteration that finished, in plies
+     */
+    public int getDepth() {
+        return depth;
+    }
+
+    public long getNodes() {
+        return nodes;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    public long getNodesPerSecond() {
+        return elapsedNanos == 0 ? 0 : nodes * 1_000_000_000L / elapsedNanos;
+    }
+
+    /**
+     * @return the expected line of play, starting with the best move
+     */
+    public List<ChessMove> getPrincipalVariation() {
+        return principalVariation;
+    }
+
+    /**
+     * @return True if the score is a forced mate for either side
+     */
+    public boolean isMate() {
+        return Math.abs(score) >= Search.MATE - SearchLimits.MAX_DEPTH * 2;
+    }
+
+    /**
+     * @return moves until mate: positive if the side to move mates, negative
+     * if it is mated, 0 if the score is not a mate
+     */
+    public int getMateIn() {
+        if(!isMate()){
+            return 0;
+        }
+        int plies = Search.MATE - Math.abs(score);
+        return score > 0 ? (plies + 1) / 2 : -(plies / 2);
+    }
+
+    @Override
+    public String toString() {
+        var pv = new StringBuilder();
+        for(var move : principalVariation){
+            pv.append(' ').append(Move.toString(Move.fromChessMove(move)));
+        }
+        return "depth " + depth + " score " + (isMate() ? "mate " + getMateIn() : "cp " + score) + " nodes " + nodes
+                + " nps " + getNodesPerSecond() + " pv" + pv;
+    }
+}
@@ -0,0 +1,103 @@
+package chess.engine;
+
+import chess.Bitboards;
+import chess.ChessBoard;
+import chess.ChessPiece;
+import chess.Move;
+
+/**
+ * Static exchange evaluation: what a capture wins or loses once both sides
+ * have made every recapture on its square that pays, worked out from the
+ * attackers alone without playing any move.
+ * <p>
+ * Each side recaptures with its least valuable attacker first, and either
+ * side may stop when carrying on would lose material. Sliders hidden behind
+ * a piece that has just captured join in as the piece leaves. Pins are not
+ * considered, so the result is an estimate, good for ordering and pruning
+ * captures but not a proof.
+ */
+public final class StaticExchange {
+
+    /** Centipawn value of each {@link ChessPiece.PieceType}, by ordinal; the king can never be taken */
+    static final int[] VALUES = {20000, 900, 330, 320, 500, 100};
+
+    private static final int KING = ChessPiece.PieceType.KING.ordinal();
+    private static final int PAWN = ChessPiece.PieceType.PAWN.ordinal();
+    private static final int[] CHEAPEST_FIRST = {PAWN, ChessPiece.PieceType.KNIGHT.ordinal(),
+            ChessPiece.PieceType.BISHOP.ordinal(), ChessPiece.PieceType.ROOK.ordinal(),
+            ChessPiece.PieceType.QUEEN.ordinal(), KING};
+    // Each capture in turn can only take the piece that made the last one, so 32 is plenty
+    private static final ThreadLocal<int[]> GAINS = ThreadLocal.withInitial(() -> new int[32]);
+
+    private StaticExchange() {
+    }
+
+    /**
+     * @param move a packed {@link Move} for the side whose piece stands on its start square
+     * @return the material the move wins in centipawns, negative if it loses
+     * material; 0 for a quiet move no enemy piece can take back
+     */
+    public static int evaluate(ChessBoard board, int move) {
+        int from = Move.from(move);
+        int to = Move.to(move);
+        int attacker = board.pieceAt(from);
+        int victim = board.pieceAt(to);
+        int side = ChessBoard.colorOf(attacker);
+        int[] gain = GAINS.get();
+        gain[0] = victim == ChessBoard.EMPTY ? 0 : VALUES[ChessBoard.typeOf(victim)];
+        // the value of the piece now standing on the square, which the next capture wins
+        int onSquare = VALUES[ChessBoard.typeOf(attacker)];
+        if(Move.isPromotion(move)){
+            gain[0] += VALUES[Move.promotion(move)] - VALUES[PAWN];
+            onSquare = VALUES[Move.promotion(move)];
+        }
+        long occupied = board.getOccupied() ^ Bitboards.bit(from);
+        int depth = 0;
+        while(true){
+            side ^= 1;
+            long attackers = board.attackersTo(to, side, occupied) & occupied;
+            if(attackers == 0){
+                break;
+            }
+            int next = leastValuable(board, attackers, side);
+            int type = ChessBoard.typeOf(board.pieceAt(next));
+            // a king may only take if the other side cannot take it back
+            if(type == KING
+                    && (board.attackersTo(to, side ^ 1, occupied ^ Bitboards.bit(next)) & occupied) != 0){
+                break;
+            }
+            depth++;
+            gain[depth] = onSquare - gain[depth - 1];
+            // neither side wants this capture, whatever follows
+            if(Math.max(-gain[depth - 1], gain[depth]) < 0){
+                depth--;
+                break;
+            }
+            onSquare = VALUES[type];
+            occupied ^= Bitboards.bit(next);
+        }
+        // each side stops when taking back again would leave it worse off
+        while(depth > 0){
+            gain[depth - 1] = -Math.max(-gain[depth - 1], gain[depth]);
+            depth--;
+        }
+        return gain[0];
+    }
+
+    /**
+     * @return True if the move wins at least the threshold, by {@link #evaluate}
+     */
+    public static boolean isAtLeast(ChessBoard board, int move, int threshold) {
+        return evaluate(board, move) >= threshold;
+    }
+
+    private static int leastValuable(ChessBoard board, long attackers, int side) {
+        for(int type : CHEAPEST_FIRST){
+            long pieces = attackers & board.getPieces(side * 6 + type);
+            if(pieces != 0){
+                return Bitboards.first(pieces);
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,163 @@
+package chess.engine;
+
+import java.util.Arrays;
+
+/**
+ * A fixed-size cache of search results keyed by position hash, safe to share
+ * between any number of searching threads without locks.
+ * <p>
+ * Entries live in a single {@code long[]}, two longs each: the key XORed
+ * with the data, then the data. A reader accepts an entry only if XORing the
+ * two back together gives the key it asked for, so an entry torn by two
+ * threads writing at once is simply seen as a miss rather than wrong data.
+ * <p>
+ * Entries are grouped in buckets of two. The first slot keeps the deepest
+ * result, since it saved the most work; the second always takes the newest,
+ * so recent positions are cached too. Results from earlier searches give way
+ * to new ones regardless of depth.
+ */
+public final class TranspositionTable {
+
+    /** The score is exact */
+    public static final int EXACT = 1;
+    /** The score is a lower bound: the search failed high */
+    public static final int LOWER = 2;
+    /** The score is an upper bound: the search failed low */
+    public static final int UPPER = 3;
+
+    private static final int LONGS_PER_ENTRY = 2;
+    private static final int BYTES_PER_BUCKET = 2 * LONGS_PER_ENTRY * Long.BYTES;
+    private static final int SCORE_SHIFT = 16;
+    private static final int DEPTH_SHIFT = 32;
+    private static final int BOUND_SHIFT = 40;
+    private static final int GENERATION_SHIFT = 42;
+    private static final int GENERATION_MASK = 0x3F;
+    // Keeps bucket indexes within an int: 2^28 buckets is 8 GB
+    private static final long MAX_BUCKETS = 1L << 28;
+
+    private final long[] table;
+    private final int bucketMask;
+    private volatile int generation;
+
+    /**
+     * @param megabytes memory to use, rounded down to a power of two number of buckets
+     */
+    public TranspositionTable(int megabytes) {
+        if(megabytes < 1){
+            throw new IllegalArgumentException("Transposition table needs at least 1 MB");
+        }
+        long buckets = Long.highestOneBit((long) megabytes * 1024 * 1024 / BYTES_PER_BUCKET);
+        buckets = Math.min(buckets, MAX_BUCKETS);
+        this.table = new long[(int) (buckets * 2 * LONGS_PER_ENTRY)];
+        this.bucketMask = (int) buckets - 1;
+    }
+
+    /**
+     * Looks a position up
+     *
+     * @return the entry's packed data, read with {@link #move}, {@link #score},
+     * {@link #depth} and {@link #bound}, or 0 if the position is not stored
+     */
+    public long probe(long key) {
+        int index = bucket(key);
+        for(int slot = 0; slot < 2; slot++, index += LONGS_PER_ENTRY){
+            long data = table[index + 1];
+            if((table[index] ^ data) == key && data != 0){
+                return data;
+            }
+        }
+        return 0L;
+    }
+
+    /**
+     * Stores a search result, possibly replacing another entry
+     *
+     * @param move  the best move found, or {@link chess.Move#NONE}
+     * @param score the score, which must fit in 16 bits
+     * @param depth the depth searched, 0 to 255
+     * @param bound {@link #EXACT}, {@link #LOWER} or {@link #UPPER}
+     */
+    public void store(long key, int move, int score, int depth, int bound) {
+        int gen = generation;
+        long data = (move & 0xFFFFL) | ((score & 0xFFFFL) << SCORE_SHIFT)
+                | ((long) Math.min(depth, 255) << DEPTH_SHIFT) | ((long) bound << BOUND_SHIFT)
+                | ((long) gen << GENERATION_SHIFT);
+        int index = bucket(key);
+        long deepData = table[index + 1];
+        boolean sameKey = (table[index] ^ deepData) == key;
+        if(sameKey || deepData == 0 || generation(deepData) != gen || depth >= depth(deepData)){
+            if(sameKey && move == 0){
+                // keep the best move from a shallower search of the same position
+                data |= deepData & 0xFFFFL;
+            }
+        } else {
+            index += LONGS_PER_ENTRY;
+        }
+        table[index] = key ^ data;
+        table[index + 1] = data;
+    }
+
+    /**
+     * Marks the start of a new search, so that entries from earlier searches
+     * are replaced first
+     */
+    public void newSearch() {
+        generation = (generation + 1) & GENERATION_MASK;
+    }
+
+    /**
+     * Forgets every entry
+     */
+    public void clear() {
+        Arrays.fill(table, 0L);
+    }
+
+    /**
+     * @return how many entries the table can hold
+     */
+    public int capacity() {
+        return table.length / LONGS_PER_ENTRY;
+    }
+
+    /**
+     * Estimates how full the table is from its first thousand entries
+     *
+     * @return entries from the current search per thousand
+     */
+    public int hashfull() {
+        int sample = Math.min(1000, capacity());
+        int used = 0;
+        int gen = generation;
+        for(int i = 0; i < sample; i++){
+            long data = table[i * LONGS_PER_ENTRY + 1];
+            if(data != 0 && generation(data) == gen){
+                used++;
+            }
+        }
+        return used * 1000 / sample;
+    }
+
+    public static int move(long data) {
+        return (int) (data & 0xFFFF);
+    }
+
+    public static int score(long data) {
+        return (short) (data >>> SCORE_SHIFT);
+    }
+
+    public static int depth(long data) {
+        return (int) (data >>> DEPTH_SHIFT) & 0xFF;
+    }
+
+    public static int bound(long data) {
+        return (int) (data >>> BOUND_SHIFT) & 0x3;
+    }
+
+    private static int generation(long data) {
+        return (int) (data >>> GENERATION_SHIFT) & GENERATION_MASK;
+    }
+
+    private int bucket(long key) {
+        return ((int) (key ^ (key >>> 32)) & bucketMask) * 2 * LONGS_PER_ENTRY;
+    }
+}
@@ -0,0 +1,68 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+public class BoardSnapshotTests {
+
+    @Test
+    @DisplayName("Snapshots Round Trip Through Played Games")
+    public void roundTrip() {
+        var random = new SplittableRandom(16);
+        var moves = new MoveList();
+        var scratch = new ChessBoard();
+        for(int g = 0; g < 20; g++){
+            var game = new ChessGame();
+            for(int ply = 0; ply < 120; ply++){
+                var snapshot = BoardSnapshot.of(game);
+                var restored = snapshot.toGame();
+                Assertions.assertEquals(game, restored);
+                Assertions.assertEquals(game.getZobristKey(), restored.getZobristKey());
+                Assertions.assertEquals(snapshot, BoardSnapshot.of(restored));
+                Assertions.assertEquals(snapshot.hashCode(), BoardSnapshot.of(restored).hashCode());
+                snapshot.copyTo(scratch);
+                Assertions.assertEquals(game.getBoard(), scratch);
+                for(int sq = 0; sq < 64; sq++){
+                    Assertions.assertEquals(game.getBoard().pieceAt(sq), snapshot.pieceAt(sq));
+                }
+
+                moves.clear();
+                MoveGenerator.generateLegal(game.getBoard(), game.getTeamTurn().ordinal(), moves);
+                if(moves.isEmpty()){
+                    break;
+                }
+                game.makeMove(moves.get(random.nextInt(moves.size())));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Snapshot Words Rebuild The Same Position")
+    public void words() {
+        var snapshot = BoardSnapshot.of(new ChessGame());
+        var copy = BoardSnapshot.fromWords(snapshot.getWord(0), snapshot.getWord(1), snapshot.getWord(2),
+                snapshot.getWord(3), ChessGame.TeamColor.WHITE);
+        Assertions.assertEquals(snapshot, copy);
+        Assertions.assertEquals(new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.QUEEN),
+                copy.getPiece(new ChessPosition(8, 4)));
+        Assertions.assertNull(copy.getPiece(new ChessPosition(4, 4)));
+        Assertions.assertNotEquals(snapshot, BoardSnapshot.of(new ChessBoard(), ChessGame.TeamColor.WHITE));
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> BoardSnapshot.fromWords(0xDL, 0, 0, 0, ChessGame.TeamColor.WHITE));
+    }
+
+    @Test
+    @DisplayName("Snapshots Keep The Move Clocks")
+    public void clocks() {
+        var game = Fen.parse("4k3/8/8/8/8/8/8/R3K3 b - - 100 73");
+        Assertions.assertTrue(game.getStatus().isDraw());
+        var restored = BoardSnapshot.of(game).toGame();
+        Assertions.assertEquals(100, restored.getHalfmoveClock());
+        Assertions.assertEquals(73, restored.getFullmoveNumber());
+        Assertions.assertTrue(restored.getStatus().getDrawReasons().contains(GameStatus.DrawReason.FIFTY_MOVE_RULE));
+        Assertions.assertNotEquals(BoardSnapshot.of(game), BoardSnapshot.of(game.getBoard(), game.getTeamTurn()));
+    }
+}
@@ -0,0 +1,58 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+public class ConcurrentReadTests {
+
+    @ParameterizedTest
+    @EnumSource(ChessGame.MoveGeneration.class)
+    @DisplayName("Concurrent Queries See Consistent Answers")
+    public void concurrentQueries(ChessGame.MoveGeneration moveGeneration) throws Exception {
+        var game = new ChessGame();
+        for(var move : new String[]{"e2e4", "e7e5", "d1h5", "b8c6", "f1c4", "g8f6"}){
+            game.makeMove(Move.toChessMove(Move.parse(move)));
+        }
+        game.setMoveGeneration(moveGeneration);
+        long key = game.getZobristKey();
+        Map<ChessPosition, List<ChessMove>> expected = new HashMap<>();
+        for(var position : game.getBoard().getPiecePositions(ChessGame.TeamColor.WHITE)){
+            expected.put(position, new ArrayList<>(game.validMoves(position)));
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> results = new ArrayList<>();
+            for(int t = 0; t < 8; t++){
+                results.add(pool.submit(() -> {
+                    for(int i = 0; i < 300; i++){
+                        for(var entry : expected.entrySet()){
+                            Assertions.assertEquals(entry.getValue(), new ArrayList<>(game.validMoves(entry.getKey())));
+                        }
+                        Assertions.assertFalse(game.isInCheck(ChessGame.TeamColor.WHITE));
+                        Assertions.assertFalse(game.isInCheckmate(ChessGame.TeamColor.BLACK));
+                        Assertions.assertFalse(game.isInStalemate(ChessGame.TeamColor.WHITE));
+                        Assertions.assertEquals(key, game.getZobristKey());
+                    }
+                    return null;
+                }));
+            }
+            for(var result : results){
+                result.get();
+            }
+        } finally {
+            pool.shutdown();
+        }
+        Assertions.assertEquals(key, game.getZobristKey());
+    }
+}
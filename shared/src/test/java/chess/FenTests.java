@@ -0,0 +1,113 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import passoff.chess.TestUtilities;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.SplittableRandom;
+
+public class FenTests {
+
+    @Test
+    @DisplayName("Start Position Round Trip")
+    public void startPosition() {
+        Assertions.assertEquals(Fen.START, Fen.write(new ChessGame()));
+        Assertions.assertEquals(new ChessGame(), Fen.parse(Fen.START));
+        Assertions.assertEquals(new ChessGame(), Fen.parse("rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq -"));
+        Assertions.assertEquals(new ChessGame(), Fen.parse("rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w"));
+    }
+
+    @Test
+    @DisplayName("Matches Loaded Board")
+    public void matchesLoadedBoard() {
+        var expected = new ChessGame();
+        expected.setBoard(TestUtilities.loadBoard("""
+                | | | | |k| | | |
+                |P| | | | | | | |
+                | | | | | | | | |
+                | | |n| | | | | |
+                | | | | | | | | |
+                | | | | | | | |B|
+                | | | | | | |p| |
+                |R| | | |K| | | |
+                """));
+        expected.setTeamTurn(ChessGame.TeamColor.BLACK);
+        var game = Fen.parse("4k3/P7/8/2n5/8/7B/6p1/R3K3 b Q e3 12 40");
+        Assertions.assertEquals(expected, game);
+        Assertions.assertEquals(12, game.getHalfmoveClock());
+        Assertions.assertEquals(40, game.getFullmoveNumber());
+        Assertions.assertEquals("4k3/P7/8/2n5/8/7B/6p1/R3K3 b - - 12 40", Fen.write(game));
+    }
+
+    @Test
+    @DisplayName("Round Trips Played Games")
+    public void playedGames() {
+        var random = new SplittableRandom(17);
+        var moves = new MoveList();
+        var reused = new ChessGame();
+        for(int g = 0; g < 20; g++){
+            var game = new ChessGame();
+            for(int ply = 0; ply < 100; ply++){
+                String fen = Fen.write(game);
+                Fen.parse(fen, reused);
+                Assertions.assertEquals(game, reused, fen);
+                Assertions.assertEquals(fen, Fen.write(reused));
+                Assertions.assertEquals(0, reused.getUndoDepth());
+                moves.clear();
+                MoveGenerator.generateLegal(game.getBoard(), game.getTeamTurn().ordinal(), moves);
+                if(moves.isEmpty()){
+                    break;
+                }
+                game.makeMove(moves.get(random.nextInt(moves.size())));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Reads Line By Line From A Buffer")
+    public void byteBuffer() {
+        var buffer = ByteBuffer.wrap((Fen.START + "\r\n8/8/8/4k3/8/8/8/4K3 b - - 0 1\n")
+                .getBytes(StandardCharsets.US_ASCII));
+        Assertions.assertEquals(new ChessGame(), Fen.parse(buffer));
+        var second = Fen.parse(buffer);
+        Assertions.assertEquals(ChessGame.TeamColor.BLACK, second.getTeamTurn());
+        Assertions.assertFalse(buffer.hasRemaining());
+
+        var out = ByteBuffer.allocate(100);
+        Fen.write(second, out);
+        Assertions.assertEquals("8/8/8/4k3/8/8/8/4K3 b - - 0 1",
+                new String(out.array(), 0, out.position(), StandardCharsets.US_ASCII));
+
+        for(var fen : new String[]{Fen.START, "r3k2r/pp3ppp/2n5/8/3Q4/8/PP3PPP/R3K2R b - - 17 120"}){
+            out.clear();
+            Fen.write(Fen.parse(fen), out);
+            Assertions.assertEquals(fen, new String(out.array(), 0, out.position(), StandardCharsets.US_ASCII));
+        }
+    }
+
+    @Test
+    @DisplayName("Rejects Malformed FEN")
+    public void malformed() {
+        String[] bad = {
+                "",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR x",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBN w",
+                "rnbqkbnr/pppppppp/9/8/8/8/PPPPPPPP/RNBQKBNR w",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNRR w",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP w",
+                "rnbqkbxr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KX - 0 1",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w - e4 0 1",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w - - x 1",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w - - 0 1 extra",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w - - 0 0",
+        };
+        for(String fen : bad){
+            Assertions.assertThrows(IllegalArgumentException.class, () -> Fen.parse(fen), fen);
+        }
+    }
+}
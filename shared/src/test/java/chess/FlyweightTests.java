@@ -0,0 +1,47 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class FlyweightTests {
+
+    @Test
+    @DisplayName("Factories Return Shared Equal Instances")
+    public void sharedInstances() {
+        Assertions.assertSame(ChessPosition.of(3, 4), ChessPosition.of(3, 4));
+        Assertions.assertEquals(new ChessPosition(3, 4), ChessPosition.of(3, 4));
+
+        var piece = ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KNIGHT);
+        Assertions.assertSame(piece, ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KNIGHT));
+        Assertions.assertEquals(new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KNIGHT), piece);
+
+        var move = ChessMove.of(new ChessPosition(7, 1), new ChessPosition(8, 1), ChessPiece.PieceType.QUEEN);
+        Assertions.assertSame(move, ChessMove.of(ChessPosition.of(7, 1), ChessPosition.of(8, 1), ChessPiece.PieceType.QUEEN));
+        Assertions.assertSame(ChessPosition.of(7, 1), move.getStartPosition());
+        Assertions.assertEquals(new ChessMove(new ChessPosition(7, 1), new ChessPosition(8, 1), ChessPiece.PieceType.QUEEN), move);
+        Assertions.assertNotSame(move, ChessMove.of(ChessPosition.of(7, 1), ChessPosition.of(8, 1), null));
+    }
+
+    @Test
+    @DisplayName("Off Board Values Are Not Cached")
+    public void offBoard() {
+        var position = ChessPosition.of(0, 9);
+        Assertions.assertEquals(0, position.getRow());
+        Assertions.assertEquals(9, position.getColumn());
+        var move = ChessMove.of(ChessPosition.of(1, 1), position, null);
+        Assertions.assertEquals(position, move.getEndPosition());
+    }
+
+    @Test
+    @DisplayName("Engine Hands Out Shared Instances")
+    public void engineUsesFlyweights() {
+        var game = new ChessGame();
+        var moves = game.validMoves(ChessPosition.of(2, 5));
+        for(var move : moves){
+            Assertions.assertSame(ChessMove.of(move.getStartPosition(), move.getEndPosition(), null), move);
+        }
+        Assertions.assertSame(ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KING),
+                game.getBoard().getPiece(ChessPosition.of(1, 5)));
+    }
+}
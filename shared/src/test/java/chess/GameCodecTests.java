@@ -0,0 +1,120 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.SplittableRandom;
+
+public class GameCodecTests {
+
+    @Test
+    @DisplayName("Encoded Games Replay To The Same Position")
+    public void roundTrip() {
+        var random = new SplittableRandom(19);
+        var moves = new MoveList();
+        var decoded = new ChessGame();
+        for(int g = 0; g < 20; g++){
+            var game = new ChessGame();
+            for(int ply = 0; ply < 120; ply++){
+                moves.clear();
+                MoveGenerator.generateLegal(game.getBoard(), game.getTeamTurn().ordinal(), moves);
+                if(moves.isEmpty()){
+                    break;
+                }
+                game.makeMove(moves.get(random.nextInt(moves.size())));
+            }
+            var bytes = GameCodec.encode(game);
+            Assertions.assertEquals(4 + 2 * game.getUndoDepth(), bytes.length);
+            GameCodec.decode(ByteBuffer.wrap(bytes), decoded);
+            Assertions.assertEquals(game, decoded);
+            Assertions.assertEquals(game.getUndoDepth(), decoded.getUndoDepth());
+            while(game.getUndoDepth() > 0){
+                game.unmakeMove();
+                decoded.unmakeMove();
+                Assertions.assertEquals(game, decoded);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Custom Start Positions Are Stored")
+    public void customStart() {
+        var game = Fen.parse("4k3/P7/8/8/8/8/8/4K3 b - - 7 30");
+        game.makeMove(Move.parse("e8d7"));
+        game.makeMove(Move.parse("a7a8n"));
+        var buffer = ByteBuffer.allocate(GameCodec.encodedSize(game) + 3);
+        buffer.put((byte) 9);
+        GameCodec.encode(game, buffer);
+        Assertions.assertEquals(1 + 4 + 32 + 4 + 4, buffer.position());
+
+        buffer.flip().get();
+        var decoded = GameCodec.decode(buffer);
+        Assertions.assertFalse(buffer.hasRemaining());
+        Assertions.assertEquals(Fen.write(game), Fen.write(decoded));
+        decoded.unmakeMove();
+        decoded.unmakeMove();
+        Assertions.assertEquals("4k3/P7/8/8/8/8/8/4K3 b - - 7 30", Fen.write(decoded));
+    }
+
+    @Test
+    @DisplayName("Reads Version 1")
+    public void versionOne() {
+        var buffer = ByteBuffer.allocate(6).put((byte) 1).put((byte) 2).putShort((short) 1)
+                .putShort((short) Move.parse("e2e4")).flip();
+        var game = GameCodec.decode(buffer);
+        Assertions.assertEquals("rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b - - 0 1", Fen.write(game));
+    }
+
+    @Test
+    @DisplayName("Rejects Corrupt Data")
+    public void corrupt() {
+        var bytes = GameCodec.encode(new ChessGame());
+        bytes[0] = 3;
+        Assertions.assertThrows(IllegalArgumentException.class, () -> GameCodec.decode(ByteBuffer.wrap(bytes)));
+
+        var badMove = ByteBuffer.allocate(6).put(GameCodec.VERSION).put((byte) 2).putShort((short) 1)
+                .putShort((short) Move.parse("e7e5")).flip();
+        Assertions.assertThrows(IllegalArgumentException.class, () -> GameCodec.decode(badMove));
+    }
+
+    @Test
+    @DisplayName("Rejects Illegal Moves")
+    public void illegalMoves() {
+        var game = new ChessGame();
+        for(var move : "e2e4 f7f5 d1h5 g7g6".split(" ")){
+            game.makeMove(Move.parse(move));
+        }
+        var bytes = GameCodec.encode(game);
+        int movesAt = bytes.length - 8;
+        Assertions.assertEquals(Fen.write(game), Fen.write(GameCodec.decode(ByteBuffer.wrap(bytes))));
+
+        // a knight moving like a queen, the queen taking its own pawn, and black ignoring check
+        assertRejected(bytes, movesAt, 0, Move.parse("g1g3"));
+        assertRejected(bytes, movesAt, 2, Move.parse("d1d2"));
+        assertRejected(bytes, movesAt, 3, Move.parse("a7a6"));
+
+        // every single bit flipped in the first move gives another legal first move or an error
+        var legal = new MoveList();
+        MoveGenerator.generateLegal(new ChessGame().getBoard(), 0, legal);
+        for(int bit = 0; bit < 16; bit++){
+            int flipped = Move.parse("e2e4") ^ (1 << bit);
+            var forged = bytes.clone();
+            ByteBuffer.wrap(forged).putShort(movesAt, (short) flipped);
+            if(legal.contains(flipped)){
+                GameCodec.decode(ByteBuffer.wrap(forged));
+            } else {
+                Assertions.assertThrows(IllegalArgumentException.class,
+                        () -> GameCodec.decode(ByteBuffer.wrap(forged)), Move.toString(flipped));
+            }
+        }
+    }
+
+    private static void assertRejected(byte[] bytes, int movesAt, int index, int move) {
+        var forged = bytes.clone();
+        ByteBuffer.wrap(forged).putShort(movesAt + 2 * index, (short) move);
+        Assertions.assertThrows(IllegalArgumentException.class, () -> GameCodec.decode(ByteBuffer.wrap(forged)),
+                Move.toString(move));
+    }
+}
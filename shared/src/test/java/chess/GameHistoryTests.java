@@ -0,0 +1,108 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+import java.util.SplittableRandom;
+
+public class GameHistoryTests {
+
+    private static final String[] KNIGHT_SHUFFLE = {"g1f3", "g8f6", "f3g1", "f6g8"};
+
+    @Test
+    @DisplayName("Threefold Repetition")
+    public void threefoldRepetition() {
+        var game = new ChessGame();
+        Assertions.assertEquals(1, game.getRepetitionCount());
+        for(int cycle = 1; cycle <= 2; cycle++){
+            for(String move : KNIGHT_SHUFFLE){
+                Assertions.assertFalse(game.getStatus().getDrawReasons()
+                        .contains(GameStatus.DrawReason.THREEFOLD_REPETITION));
+                game.makeMove(Move.parse(move));
+            }
+            Assertions.assertEquals(cycle + 1, game.getRepetitionCount());
+        }
+        var status = game.getStatus();
+        Assertions.assertEquals(Set.of(GameStatus.DrawReason.THREEFOLD_REPETITION), status.getDrawReasons());
+        Assertions.assertTrue(status.isDraw());
+        Assertions.assertTrue(status.isGameOver());
+
+        game.unmakeMove();
+        Assertions.assertEquals(2, game.getRepetitionCount(), "Position after g8f6 has occurred twice");
+        Assertions.assertFalse(game.getStatus().isDraw());
+    }
+
+    @Test
+    @DisplayName("Repetition Needs The Same Side To Move")
+    public void sideToMoveMatters() {
+        var game = Fen.parse("4k3/8/8/8/8/8/8/R3K3 w - - 0 1");
+        game.makeMove(Move.parse("a1a2"));
+        game.makeMove(Move.parse("e8d8"));
+        game.makeMove(Move.parse("a2a3"));
+        game.makeMove(Move.parse("d8e8"));
+        game.makeMove(Move.parse("a3a1"));
+        Assertions.assertEquals(game.getBoard(), Fen.parse("4k3/8/8/8/8/8/8/R3K3 w - - 0 1").getBoard());
+        Assertions.assertEquals(1, game.getRepetitionCount(), "Same pieces, but black to move");
+    }
+
+    @Test
+    @DisplayName("Fifty Move Rule")
+    public void fiftyMoveRule() {
+        var game = Fen.parse("4k3/8/8/8/8/8/8/R3K3 w - - 98 80");
+        game.makeMove(Move.parse("a1a2"));
+        Assertions.assertEquals(99, game.getHalfmoveClock());
+        Assertions.assertFalse(game.getStatus().isDraw());
+        game.makeMove(Move.parse("e8d8"));
+        Assertions.assertEquals(100, game.getHalfmoveClock());
+        Assertions.assertEquals(81, game.getFullmoveNumber());
+        Assertions.assertEquals(Set.of(GameStatus.DrawReason.FIFTY_MOVE_RULE), game.getStatus().getDrawReasons());
+        game.unmakeMove();
+        Assertions.assertEquals(99, game.getHalfmoveClock());
+        Assertions.assertEquals(80, game.getFullmoveNumber());
+        Assertions.assertFalse(game.getStatus().isDraw());
+    }
+
+    @Test
+    @DisplayName("Mate On The Hundredth Halfmove Is Not A Draw")
+    public void mateBeatsFiftyMoveRule() {
+        var game = Fen.parse("4k3/R7/8/8/8/8/8/1R2K3 w - - 99 80");
+        game.makeMove(Move.parse("b1b8"));
+        var status = game.getStatus();
+        Assertions.assertTrue(status.isCheckmate());
+        Assertions.assertFalse(status.getDrawReasons().contains(GameStatus.DrawReason.FIFTY_MOVE_RULE));
+    }
+
+    @Test
+    @DisplayName("Clocks Reset On Captures And Pawn Moves And Unmake Restores Them")
+    public void clocks() {
+        var random = new SplittableRandom(20);
+        var moves = new MoveList();
+        var game = new ChessGame();
+        int[] halfmoves = new int[200];
+        int[] fullmoves = new int[200];
+        int ply = 0;
+        for(; ply < 200; ply++){
+            halfmoves[ply] = game.getHalfmoveClock();
+            fullmoves[ply] = game.getFullmoveNumber();
+            moves.clear();
+            MoveGenerator.generateLegal(game.getBoard(), game.getTeamTurn().ordinal(), moves);
+            if(moves.isEmpty()){
+                break;
+            }
+            int move = moves.get(random.nextInt(moves.size()));
+            boolean resets = game.getBoard().pieceAt(Move.to(move)) != ChessBoard.EMPTY
+                    || ChessBoard.typeOf(game.getBoard().pieceAt(Move.from(move))) == MoveGenerator.PAWN;
+            game.makeMove(move);
+            Assertions.assertEquals(resets ? 0 : halfmoves[ply] + 1, game.getHalfmoveClock());
+            Assertions.assertEquals(fullmoves[ply] + (ply % 2), game.getFullmoveNumber());
+        }
+        while(ply-- > 0){
+            game.unmakeMove();
+            Assertions.assertEquals(halfmoves[ply], game.getHalfmoveClock());
+            Assertions.assertEquals(fullmoves[ply], game.getFullmoveNumber());
+        }
+        Assertions.assertEquals(1, game.getRepetitionCount());
+    }
+}
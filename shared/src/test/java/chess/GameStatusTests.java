@@ -0,0 +1,105 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import passoff.chess.TestUtilities;
+
+import java.util.Set;
+
+public class GameStatusTests {
+
+    @Test
+    @DisplayName("Status Is Cached Until The Board Changes")
+    public void cachedPerPosition() throws InvalidMoveException {
+        var game = new ChessGame();
+        var status = game.getStatus(ChessGame.TeamColor.WHITE);
+        Assertions.assertSame(status, game.getStatus(ChessGame.TeamColor.WHITE));
+        Assertions.assertNotSame(status, game.getStatus(ChessGame.TeamColor.BLACK));
+
+        game.makeMove(new ChessMove(new ChessPosition(2, 6), new ChessPosition(3, 6), null));
+        Assertions.assertNotSame(status, game.getStatus(ChessGame.TeamColor.WHITE));
+        game.unmakeMove();
+        Assertions.assertEquals(status.toString(), game.getStatus(ChessGame.TeamColor.WHITE).toString());
+
+        game.getBoard().clearSquare(Bitboards.square(5, 1));
+        game.getBoard().setSquare(Bitboards.square(5, 1), ChessBoard.pieceCode(ChessGame.TeamColor.BLACK,
+                ChessPiece.PieceType.QUEEN));
+        game.getBoard().clearSquare(Bitboards.square(2, 4));
+        Assertions.assertTrue(game.getStatus(ChessGame.TeamColor.WHITE).isInCheck(),
+                "Editing the board directly should not leave a stale status");
+    }
+
+    @Test
+    @DisplayName("Fool's Mate Status")
+    public void foolsMate() throws InvalidMoveException {
+        var game = new ChessGame();
+        game.makeMove(new ChessMove(new ChessPosition(2, 6), new ChessPosition(3, 6), null));
+        game.makeMove(new ChessMove(new ChessPosition(7, 5), new ChessPosition(5, 5), null));
+        game.makeMove(new ChessMove(new ChessPosition(2, 7), new ChessPosition(4, 7), null));
+        game.makeMove(new ChessMove(new ChessPosition(8, 4), new ChessPosition(4, 8), null));
+        var status = game.getStatus();
+        Assertions.assertEquals(ChessGame.TeamColor.WHITE, status.getTeam());
+        Assertions.assertTrue(status.isInCheck());
+        Assertions.assertTrue(status.isCheckmate());
+        Assertions.assertFalse(status.isStalemate());
+        Assertions.assertFalse(status.isDraw());
+        Assertions.assertTrue(status.isGameOver());
+        Assertions.assertTrue(game.isInCheckmate(ChessGame.TeamColor.WHITE));
+    }
+
+    @Test
+    @DisplayName("Insufficient Material Is A Draw")
+    public void insufficientMaterial() {
+        assertInsufficient(true, """
+                | | | | |k| | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | |N| | |K| | | |
+                """);
+        assertInsufficient(true, """
+                | | | | |k| |b| |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | |K|B| | |
+                """);
+        assertInsufficient(false, """
+                | | | | |k| | |b|
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | |K|B| | |
+                """);
+        assertInsufficient(false, """
+                | | | | |k| | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                |P| | | | | | | |
+                | | | | |K| | | |
+                """);
+    }
+
+    private static void assertInsufficient(boolean expected, String board) {
+        var game = new ChessGame();
+        game.setBoard(TestUtilities.loadBoard(board));
+        var status = game.getStatus();
+        Assertions.assertEquals(expected, status.isDraw(), board);
+        Assertions.assertEquals(expected ? Set.of(GameStatus.DrawReason.INSUFFICIENT_MATERIAL) : Set.of(),
+                status.getDrawReasons());
+        Assertions.assertFalse(status.isCheckmate() || status.isStalemate());
+    }
+}
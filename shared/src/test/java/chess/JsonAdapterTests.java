@@ -0,0 +1,97 @@
+package chess;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+public class JsonAdapterTests {
+
+    private final Gson gson = new Gson();
+
+    @Test
+    @DisplayName("Moves Serialize As Coordinate Notation")
+    public void moves() {
+        var move = new ChessMove(new ChessPosition(7, 5), new ChessPosition(8, 5), ChessPiece.PieceType.QUEEN);
+        Assertions.assertEquals("\"e7e8q\"", gson.toJson(move));
+        Assertions.assertEquals(move, gson.fromJson("\"e7e8q\"", ChessMove.class));
+        Assertions.assertEquals(move, gson.fromJson(
+                "{\"startPosition\":{\"row\":7,\"col\":5},\"endPosition\":{\"row\":8,\"col\":5},"
+                        + "\"promotionPiece\":\"QUEEN\"}", ChessMove.class));
+
+        var offBoard = new ChessMove(new ChessPosition(0, 5), new ChessPosition(9, 5), null);
+        Assertions.assertEquals(offBoard, gson.fromJson(gson.toJson(offBoard), ChessMove.class));
+        Assertions.assertThrows(JsonParseException.class, () -> gson.fromJson("\"e7e9\"", ChessMove.class));
+
+        var toKing = new ChessMove(new ChessPosition(7, 5), new ChessPosition(8, 5), ChessPiece.PieceType.KING);
+        Assertions.assertEquals(toKing, gson.fromJson(gson.toJson(toKing), ChessMove.class));
+        var toPawn = new ChessMove(new ChessPosition(7, 5), new ChessPosition(8, 5), ChessPiece.PieceType.PAWN);
+        Assertions.assertEquals(toPawn, gson.fromJson(gson.toJson(toPawn), ChessMove.class));
+    }
+
+    @Test
+    @DisplayName("Games And Boards Serialize As FEN")
+    public void gamesAndBoards() throws InvalidMoveException {
+        var game = new ChessGame();
+        game.makeMove(new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null));
+        String json = gson.toJson(game);
+        Assertions.assertEquals("\"rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b - - 0 1\"", json);
+        Assertions.assertEquals(game, gson.fromJson(json, ChessGame.class));
+
+        String boardJson = gson.toJson(game.getBoard());
+        Assertions.assertEquals("\"rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR\"", boardJson);
+        Assertions.assertEquals(game.getBoard(), gson.fromJson(boardJson, ChessBoard.class));
+        Assertions.assertThrows(JsonParseException.class, () -> gson.fromJson("\"8/8\"", ChessBoard.class));
+    }
+
+    @Test
+    @DisplayName("Games And Boards In The Old Object Form Still Read")
+    public void legacyObjects() {
+        var game = Fen.parse("rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b - - 0 1");
+        String boardJson = legacyBoard(game.getBoard());
+        Assertions.assertEquals(game.getBoard(), gson.fromJson(boardJson, ChessBoard.class));
+        Assertions.assertEquals(game, gson.fromJson("{\"turn\":\"BLACK\",\"board\":" + boardJson + "}", ChessGame.class));
+        Assertions.assertEquals(game, gson.fromJson("{\"board\":\"rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR\","
+                + "\"turn\":\"BLACK\"}", ChessGame.class));
+
+        Assertions.assertThrows(JsonParseException.class,
+                () -> gson.fromJson("{\"board\":[[{\"pieceColor\":\"WHITE\"}]]}", ChessBoard.class));
+        Assertions.assertThrows(JsonParseException.class,
+                () -> gson.fromJson("{\"turn\":\"WHITE\"}", ChessGame.class));
+    }
+
+    @Test
+    @DisplayName("Adapters Apply Inside Other Objects")
+    public void nested() {
+        var message = new Message(new ChessGame(), List.of(Move.toChessMove(Move.parse("g1f3"))), null);
+        String json = gson.toJson(message);
+        Assertions.assertEquals("{\"game\":\"" + Fen.START + "\",\"moves\":[\"g1f3\"]}", json);
+        var read = gson.fromJson(json, Message.class);
+        Assertions.assertEquals(message.game, read.game);
+        Assertions.assertEquals(message.moves, read.moves);
+        Assertions.assertNull(read.board);
+    }
+
+    /**
+     * Writes a board the way Gson did by reflection, as 8 rows of 8 squares, row 1 first
+     */
+    private static String legacyBoard(ChessBoard board) {
+        var json = new StringBuilder("{\"board\":[");
+        for(int row = 1; row <= 8; row++){
+            json.append(row == 1 ? "[" : ",[");
+            for(int col = 1; col <= 8; col++){
+                var piece = board.getPiece(new ChessPosition(row, col));
+                json.append(col == 1 ? "" : ",").append(piece == null ? "null"
+                        : "{\"pieceColor\":\"" + piece.getTeamColor() + "\",\"type\":\"" + piece.getPieceType() + "\"}");
+            }
+            json.append(']');
+        }
+        return json.append("]}").toString();
+    }
+
+    private record Message(ChessGame game, List<ChessMove> moves, ChessBoard board) {
+    }
+}
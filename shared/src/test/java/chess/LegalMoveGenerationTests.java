@@ -0,0 +1,147 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import passoff.chess.TestUtilities;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.SplittableRandom;
+
+public class LegalMoveGenerationTests {
+
+    @Test
+    @DisplayName("Legal Generator Matches Trial Moves In Played Games")
+    public void matchesTrialInGames() {
+        var random = new SplittableRandom(21);
+        var moves = new MoveList();
+        for(int g = 0; g < 40; g++){
+            var game = new ChessGame();
+            for(int ply = 0; ply < 150; ply++){
+                assertModesAgree(game.getBoard());
+                moves.clear();
+                MoveGenerator.generateLegal(game.getBoard(), game.getTeamTurn().ordinal(), moves);
+                if(moves.isEmpty()){
+                    break;
+                }
+                game.makeMove(moves.get(random.nextInt(moves.size())));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Legal Generator Matches Trial Moves On Random Boards")
+    public void matchesTrialOnRandomBoards() {
+        var random = new SplittableRandom(99);
+        var types = ChessPiece.PieceType.values();
+        for(int i = 0; i < 3000; i++){
+            var board = new ChessBoard();
+            board.setSquare(random.nextInt(64), ChessBoard.pieceCode(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KING));
+            int blackKing = random.nextInt(64);
+            if(board.pieceAt(blackKing) == ChessBoard.EMPTY){
+                board.setSquare(blackKing, ChessBoard.pieceCode(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KING));
+            }
+            int extra = 2 + random.nextInt(10);
+            for(int p = 0; p < extra; p++){
+                int sq = 8 + random.nextInt(48);
+                var type = types[1 + random.nextInt(types.length - 1)];
+                var color = random.nextBoolean() ? ChessGame.TeamColor.WHITE : ChessGame.TeamColor.BLACK;
+                if(board.pieceAt(sq) == ChessBoard.EMPTY){
+                    board.setSquare(sq, ChessBoard.pieceCode(color, type));
+                }
+            }
+            assertModesAgree(board);
+        }
+    }
+
+    @Test
+    @DisplayName("Pinned Piece Moves Along Pin")
+    public void pinnedPiece() {
+        var board = TestUtilities.loadBoard("""
+                | | | | |k| | | |
+                | | | | |r| | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | |R| | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | |K| | | |
+                """);
+        var game = new ChessGame();
+        game.setBoard(board);
+        game.setMoveGeneration(ChessGame.MoveGeneration.LEGAL);
+        var rookMoves = game.validMoves(new ChessPosition(4, 5));
+        Assertions.assertEquals(5, rookMoves.size(), "Pinned rook should only move along the file");
+        for(var move : rookMoves){
+            Assertions.assertEquals(5, move.getEndPosition().getColumn());
+        }
+    }
+
+    @Test
+    @DisplayName("Double Check Allows Only King Moves")
+    public void doubleCheck() {
+        var board = TestUtilities.loadBoard("""
+                | | | | |k| | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | |n| | | | |
+                | | | | | | |Q| |
+                |r| | | |K| | | |
+                """);
+        var game = new ChessGame();
+        game.setBoard(board);
+        game.setMoveGeneration(ChessGame.MoveGeneration.LEGAL);
+        Assertions.assertTrue(game.validMoves(new ChessPosition(2, 7)).isEmpty());
+        Assertions.assertFalse(game.validMoves(new ChessPosition(1, 5)).isEmpty());
+    }
+
+    private static void assertModesAgree(ChessBoard board) {
+        var trial = new ChessGame();
+        trial.setBoard(board);
+        trial.setMoveGeneration(ChessGame.MoveGeneration.TRIAL);
+        var legal = new ChessGame();
+        legal.setBoard(board);
+        legal.setMoveGeneration(ChessGame.MoveGeneration.LEGAL);
+        for(var team : ChessGame.TeamColor.values()){
+            List<Integer> all = new ArrayList<>();
+            for(var position : board.getPiecePositions(team)){
+                var expected = sorted(trial.validMoves(position));
+                var actual = sorted(legal.validMoves(position));
+                Assertions.assertEquals(expected, actual, "Moves differ for " + position + "\n" + board);
+                all.addAll(actual);
+            }
+            var moves = new MoveList();
+            MoveGenerator.generateLegal(board, team.ordinal(), moves);
+            List<Integer> bulk = new ArrayList<>();
+            for(int i = 0; i < moves.size(); i++){
+                bulk.add(moves.get(i));
+            }
+            all.sort(null);
+            bulk.sort(null);
+            Assertions.assertEquals(all, bulk, "Bulk legal moves differ\n" + board);
+
+            moves.clear();
+            MoveGenerator.generateLegalCaptures(board, team.ordinal(), moves);
+            List<Integer> captures = new ArrayList<>();
+            for(int i = 0; i < moves.size(); i++){
+                captures.add(moves.get(i));
+            }
+            captures.sort(null);
+            Assertions.assertEquals(bulk.stream().filter(move -> board.pieceAt(Move.to(move)) != ChessBoard.EMPTY)
+                    .toList(), captures, "Legal captures differ\n" + board);
+            Assertions.assertEquals(trial.isInCheckmate(team), legal.isInCheckmate(team));
+            Assertions.assertEquals(trial.isInStalemate(team), legal.isInStalemate(team));
+        }
+    }
+
+    private static List<Integer> sorted(Collection<ChessMove> moves) {
+        int[] packed = moves.stream().mapToInt(Move::fromChessMove).toArray();
+        Arrays.sort(packed);
+        return Arrays.stream(packed).boxed().toList();
+    }
+}
@@ -0,0 +1,94 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import passoff.chess.TestUtilities;
+
+import java.util.ConcurrentModificationException;
+import java.util.HashSet;
+import java.util.SplittableRandom;
+import java.util.stream.Collectors;
+
+public class LegalMoveIteratorTests {
+
+    @Test
+    @DisplayName("Iterator Yields Every Legal Move Once In Played Games")
+    public void matchesGeneratorInGames() {
+        var random = new SplittableRandom(14);
+        var moves = new MoveList();
+        for(int g = 0; g < 30; g++){
+            var game = new ChessGame();
+            for(int ply = 0; ply < 150; ply++){
+                var color = game.getTeamTurn();
+                moves.clear();
+                MoveGenerator.generateLegal(game.getBoard(), color.ordinal(), moves);
+                var expected = new HashSet<>(moves.toChessMoves());
+                var streamed = game.legalMoveStream(color).toList();
+                Assertions.assertEquals(moves.size(), streamed.size(), "Iterator should not repeat moves");
+                Assertions.assertEquals(expected, new HashSet<>(streamed));
+                Assertions.assertEquals(!moves.isEmpty(), game.hasAnyLegalMove(color));
+                game.setMoveGeneration(ChessGame.MoveGeneration.TRIAL);
+                Assertions.assertEquals(!moves.isEmpty(), game.hasAnyLegalMove(color));
+                game.setMoveGeneration(ChessGame.MoveGeneration.LEGAL);
+                if(moves.isEmpty()){
+                    break;
+                }
+                game.makeMove(moves.get(random.nextInt(moves.size())));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Checker Captures Come Right After King Moves")
+    public void capturesOfCheckerFirst() {
+        var game = new ChessGame();
+        game.setBoard(TestUtilities.loadBoard("""
+                | | | | |k| | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | |r| | | |
+                | | | | | | | | |
+                | | | |N| | | | |
+                |R| | | |K| | | |
+                """));
+        var order = game.legalMoveStream(ChessGame.TeamColor.WHITE)
+                .map(move -> move.getStartPosition())
+                .distinct()
+                .collect(Collectors.toList());
+        Assertions.assertEquals(new ChessPosition(1, 5), order.get(0), "King moves should come first");
+        Assertions.assertEquals(new ChessPosition(2, 4), order.get(1), "Knight can capture the checker");
+        Assertions.assertTrue(game.hasAnyLegalMove(ChessGame.TeamColor.WHITE));
+    }
+
+    @Test
+    @DisplayName("No Legal Moves In Checkmate")
+    public void noMovesInMate() {
+        var game = new ChessGame();
+        game.setBoard(TestUtilities.loadBoard("""
+                | | | | | | | |k|
+                | | | | | | |Q| |
+                | | | | | |K| | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                |P| | | | | | | |
+                | | | | | | | | |
+                """));
+        Assertions.assertFalse(game.hasAnyLegalMove(ChessGame.TeamColor.BLACK));
+        Assertions.assertFalse(game.legalMoves(ChessGame.TeamColor.BLACK).hasNext());
+        Assertions.assertTrue(game.isInCheckmate(ChessGame.TeamColor.BLACK));
+        Assertions.assertTrue(game.hasAnyLegalMove(ChessGame.TeamColor.WHITE));
+    }
+
+    @Test
+    @DisplayName("Iterator Fails Fast When Game Changes")
+    public void failsFastOnChange() throws InvalidMoveException {
+        var game = new ChessGame();
+        var moves = game.legalMoves(ChessGame.TeamColor.WHITE);
+        moves.next();
+        game.makeMove(new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null));
+        Assertions.assertThrows(ConcurrentModificationException.class, moves::hasNext);
+    }
+}
@@ -0,0 +1,35 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+public class MagicsTests {
+
+    @Test
+    @DisplayName("Magic Lookups Match Ray Walking")
+    public void magicMatchesRays() {
+        var random = new SplittableRandom(240);
+        for(int i = 0; i < 2000; i++){
+            // sparse and dense occupancies both matter for blocker handling
+            long occupied = i % 2 == 0 ? random.nextLong() & random.nextLong() : random.nextLong();
+            for(int sq = 0; sq < 64; sq++){
+                Assertions.assertEquals(Bitboards.rookRayAttacks(sq, occupied), Bitboards.rookAttacks(sq, occupied),
+                        "Rook attacks differ on square " + sq);
+                Assertions.assertEquals(Bitboards.bishopRayAttacks(sq, occupied), Bitboards.bishopAttacks(sq, occupied),
+                        "Bishop attacks differ on square " + sq);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Empty Board Attacks")
+    public void emptyBoardAttacks() {
+        int d4 = Bitboards.square(4, 4);
+        Assertions.assertEquals(14, Bitboards.count(Bitboards.rookAttacks(d4, 0L)));
+        Assertions.assertEquals(13, Bitboards.count(Bitboards.bishopAttacks(d4, 0L)));
+        Assertions.assertEquals(27, Bitboards.count(Bitboards.queenAttacks(d4, 0L)));
+    }
+}
@@ -0,0 +1,62 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+public class MakeUnmakeTests {
+
+    @Test
+    @DisplayName("Unmake Restores Every Position")
+    public void unmakeRestoresPositions() {
+        var random = new SplittableRandom(7);
+        for(int g = 0; g < 20; g++){
+            var game = new ChessGame();
+            List<String> boards = new ArrayList<>();
+            List<ChessGame.TeamColor> turns = new ArrayList<>();
+            var moves = new MoveList();
+            for(int ply = 0; ply < 80; ply++){
+                moves.clear();
+                MoveGenerator.generatePseudoLegal(game.getBoard(), game.getTeamTurn().ordinal(), moves);
+                if(moves.isEmpty()){
+                    break;
+                }
+                boards.add(game.getBoard().toString());
+                turns.add(game.getTeamTurn());
+                game.makeMove(moves.get(random.nextInt(moves.size())));
+            }
+            Assertions.assertEquals(boards.size(), game.getUndoDepth());
+            for(int i = boards.size() - 1; i >= 0; i--){
+                game.unmakeMove();
+                Assertions.assertEquals(boards.get(i), game.getBoard().toString());
+                Assertions.assertEquals(turns.get(i), game.getTeamTurn());
+            }
+            Assertions.assertEquals(new ChessGame().getBoard(), game.getBoard());
+        }
+    }
+
+    @Test
+    @DisplayName("Unmake Restores Promoted Pawn")
+    public void unmakePromotion() {
+        var game = new ChessGame();
+        var board = new ChessBoard();
+        board.addPiece(new ChessPosition(7, 1), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN));
+        board.addPiece(new ChessPosition(8, 2), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.ROOK));
+        game.setBoard(board);
+
+        game.makeMove(Move.encode(Bitboards.square(7, 1), Bitboards.square(8, 2), ChessPiece.PieceType.QUEEN.ordinal()));
+        Assertions.assertEquals(new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.QUEEN),
+                board.getPiece(new ChessPosition(8, 2)));
+
+        game.unmakeMove();
+        Assertions.assertEquals(new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN),
+                board.getPiece(new ChessPosition(7, 1)));
+        Assertions.assertEquals(new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.ROOK),
+                board.getPiece(new ChessPosition(8, 2)));
+        Assertions.assertThrows(IllegalStateException.class, game::unmakeMove);
+    }
+}
@@ -0,0 +1,49 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class MoveTests {
+
+    @Test
+    @DisplayName("Packed Move Round Trip")
+    public void roundTrip() {
+        var promotions = new ChessPiece.PieceType[]{null, ChessPiece.PieceType.QUEEN, ChessPiece.PieceType.KNIGHT};
+        for(int from = 0; from < 64; from++){
+            for(int to = 0; to < 64; to++){
+                for(var promotion : promotions){
+                    var chessMove = new ChessMove(new ChessPosition(Bitboards.row(from), Bitboards.column(from)),
+                            new ChessPosition(Bitboards.row(to), Bitboards.column(to)), promotion);
+                    int move = Move.fromChessMove(chessMove);
+                    Assertions.assertEquals(move & 0xFFFF, move, "Move does not fit in 16 bits");
+                    Assertions.assertEquals(from, Move.from(move));
+                    Assertions.assertEquals(to, Move.to(move));
+                    Assertions.assertEquals(chessMove, Move.toChessMove(move));
+                }
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Move Notation")
+    public void notation() {
+        Assertions.assertEquals("e2e4", Move.toString(Move.encode(Bitboards.square(2, 5), Bitboards.square(4, 5))));
+        Assertions.assertEquals("a7a8n", Move.toString(Move.encode(Bitboards.square(7, 1), Bitboards.square(8, 1),
+                ChessPiece.PieceType.KNIGHT.ordinal())));
+    }
+
+    @Test
+    @DisplayName("Move List Grows And Reuses Storage")
+    public void moveListGrows() {
+        var list = new MoveList(2);
+        for(int i = 1; i <= 100; i++){
+            list.add(i);
+        }
+        Assertions.assertEquals(100, list.size());
+        Assertions.assertTrue(list.contains(57));
+        list.clear();
+        Assertions.assertTrue(list.isEmpty());
+        Assertions.assertFalse(list.contains(57));
+    }
+}
@@ -0,0 +1,51 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+public class ParallelAnalysisTests {
+
+    @Test
+    @DisplayName("Parallel Perft Matches Serial")
+    public void parallelPerftMatches() {
+        var pool = new ForkJoinPool(4);
+        try {
+            var game = new ChessGame();
+            for(int depth = 1; depth <= 5; depth++){
+                Assertions.assertEquals(Perft.perft(game, depth), Perft.parallelPerft(game, depth, pool));
+            }
+            Assertions.assertEquals(new ChessGame(), game);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Analysis Runs On Copies In Order")
+    public void analysisOnCopies() {
+        List<ChessGame> games = new ArrayList<>();
+        var moves = new MoveList();
+        var game = new ChessGame();
+        for(int i = 0; i < 30; i++){
+            games.add(new ChessGame(game));
+            moves.clear();
+            MoveGenerator.generateLegal(game.getBoard(), game.getTeamTurn().ordinal(), moves);
+            game.makeMove(moves.get(i % moves.size()));
+        }
+        List<Long> keys = games.stream().map(ChessGame::getZobristKey).toList();
+
+        var results = ParallelAnalysis.map(games, copy -> {
+            long key = copy.getZobristKey();
+            copy.getBoard().clear();
+            return key;
+        });
+
+        Assertions.assertEquals(keys, results);
+        Assertions.assertEquals(keys, games.stream().map(ChessGame::getZobristKey).toList());
+    }
+}
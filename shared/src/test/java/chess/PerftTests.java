@@ -0,0 +1,98 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import passoff.chess.TestUtilities;
+
+/**
+ * Node counts for standard perft reference positions. This engine has no
+ * castling or en passant, so each position is only checked to depths where
+ * the published counts contain neither.
+ */
+public class PerftTests {
+
+    @Test
+    @DisplayName("Starting Position")
+    public void startingPosition() {
+        assertPerft(new ChessGame(), 20, 400, 8902, 197281);
+    }
+
+    @Test
+    @DisplayName("Rook And Pawn Endgame")
+    public void rookEndgame() {
+        assertPerft(game(ChessGame.TeamColor.WHITE, """
+                | | | | | | | | |
+                | | |p| | | | | |
+                | | | |p| | | | |
+                |K|P| | | | | |r|
+                | |R| | | |p| |k|
+                | | | | | | | | |
+                | | | | |P| |P| |
+                | | | | | | | | |
+                """), 14, 191);
+    }
+
+    @Test
+    @DisplayName("Castled Middlegame")
+    public void castledMiddlegame() {
+        assertPerft(game(ChessGame.TeamColor.WHITE, """
+                |r| | | | |r|k| |
+                | |p|p| |q|p|p|p|
+                |p| |n|p| |n| | |
+                | | |b| |p| |B| |
+                | | |B| |P| |b| |
+                |P| |N|P| |N| | |
+                | |P|P| |Q|P|P|P|
+                |R| | | | |R|K| |
+                """), 46, 2079, 89890);
+    }
+
+    @Test
+    @DisplayName("Promotions")
+    public void promotions() {
+        assertPerft(game(ChessGame.TeamColor.BLACK, """
+                |n| |n| | | | | |
+                |P|P|P|k| | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | |K|p|p|p|
+                | | | | | |N| |N|
+                """), 24, 496, 9483, 182838);
+    }
+
+    @Test
+    @DisplayName("Public API Agrees With Fast Path")
+    public void publicApiAgrees() throws InvalidMoveException {
+        var game = new ChessGame();
+        game.setMoveGeneration(ChessGame.MoveGeneration.TRIAL);
+        Assertions.assertEquals(Perft.perft(game, 3), Perft.perftValidMoves(game, 3));
+        game.setMoveGeneration(ChessGame.MoveGeneration.LEGAL);
+        Assertions.assertEquals(Perft.perft(game, 3), Perft.perftValidMoves(game, 3));
+    }
+
+    @Test
+    @DisplayName("Divide Sums To Total")
+    public void divideSums() {
+        var game = new ChessGame();
+        var divide = Perft.divide(game, 3);
+        Assertions.assertEquals(20, divide.size());
+        Assertions.assertEquals(8902L, divide.values().stream().mapToLong(Long::longValue).sum());
+        Assertions.assertEquals(new ChessGame(), game);
+    }
+
+    private static ChessGame game(ChessGame.TeamColor turn, String boardText) {
+        var game = new ChessGame();
+        game.setBoard(TestUtilities.loadBoard(boardText));
+        game.setTeamTurn(turn);
+        return game;
+    }
+
+    private static void assertPerft(ChessGame game, long... expected) {
+        for(int depth = 1; depth <= expected.length; depth++){
+            Assertions.assertEquals(expected[depth - 1], Perft.perft(game, depth), "Wrong node count at depth " + depth);
+        }
+    }
+}
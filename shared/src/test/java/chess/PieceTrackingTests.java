@@ -0,0 +1,47 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.SplittableRandom;
+
+public class PieceTrackingTests {
+
+    @Test
+    @DisplayName("Piece Lists Follow Moves")
+    public void pieceListsFollowMoves() {
+        var random = new SplittableRandom(3);
+        var moves = new MoveList();
+        var game = new ChessGame();
+        for(int ply = 0; ply < 150; ply++){
+            var board = game.getBoard();
+            for(var team : ChessGame.TeamColor.values()){
+                Collection<ChessPosition> expected = new ArrayList<>();
+                ChessPosition king = new ChessPosition(0, 0);
+                for(int r = 1; r <= 8; r++){
+                    for(int c = 1; c <= 8; c++){
+                        var pos = new ChessPosition(r, c);
+                        var piece = board.getPiece(pos);
+                        if(piece != null && piece.getTeamColor() == team){
+                            expected.add(pos);
+                            if(piece.getPieceType() == ChessPiece.PieceType.KING){
+                                king = pos;
+                            }
+                        }
+                    }
+                }
+                Assertions.assertEquals(expected, board.getPiecePositions(team));
+                Assertions.assertEquals(king, board.findKing(team));
+            }
+            moves.clear();
+            MoveGenerator.generatePseudoLegal(board, game.getTeamTurn().ordinal(), moves);
+            if(moves.isEmpty()){
+                break;
+            }
+            game.makeMove(moves.get(random.nextInt(moves.size())));
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+public class SquareAttackTests {
+
+    @Test
+    @DisplayName("Attacks Match Generated Captures")
+    public void attacksMatchCaptures() {
+        var random = new SplittableRandom(11);
+        var moves = new MoveList();
+        for(int g = 0; g < 20; g++){
+            var game = new ChessGame();
+            for(int ply = 0; ply < 100; ply++){
+                var board = game.getBoard();
+                for(int color = 0; color < 2; color++){
+                    moves.clear();
+                    MoveGenerator.generatePseudoLegal(board, color ^ 1, moves);
+                    long occupied = board.getOccupancy(color);
+                    while(occupied != 0){
+                        int sq = Bitboards.first(occupied);
+                        boolean captured = false;
+                        for(int i = 0; i < moves.size(); i++){
+                            captured |= Move.to(moves.get(i)) == sq;
+                        }
+                        Assertions.assertEquals(captured, board.isSquareAttacked(sq, color ^ 1),
+                                "Wrong attack status on square " + sq + "\n" + board);
+                        occupied = Bitboards.popFirst(occupied);
+                    }
+                }
+                moves.clear();
+                MoveGenerator.generatePseudoLegal(board, game.getTeamTurn().ordinal(), moves);
+                if(moves.isEmpty()){
+                    break;
+                }
+                game.makeMove(moves.get(random.nextInt(moves.size())));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Missing King Is Never In Check")
+    public void missingKing() {
+        var game = new ChessGame();
+        var board = new ChessBoard();
+        board.addPiece(new ChessPosition(1, 1), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KING));
+        board.addPiece(new ChessPosition(1, 8), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.ROOK));
+        game.setBoard(board);
+
+        Assertions.assertTrue(game.isInCheck(ChessGame.TeamColor.WHITE));
+        Assertions.assertFalse(game.isInCheck(ChessGame.TeamColor.BLACK));
+        Assertions.assertFalse(board.kingsAdjacent());
+        Assertions.assertEquals(14, game.validMoves(new ChessPosition(1, 8)).size());
+    }
+}
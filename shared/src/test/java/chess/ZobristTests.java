@@ -0,0 +1,54 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+public class ZobristTests {
+
+    @Test
+    @DisplayName("Incremental Key Matches Rebuilt Key")
+    public void incrementalMatchesRebuilt() {
+        var random = new SplittableRandom(5);
+        var moves = new MoveList();
+        var game = new ChessGame();
+        long startKey = game.getZobristKey();
+        for(int ply = 0; ply < 200; ply++){
+            var rebuilt = new ChessBoard(game.getBoard().getBoard());
+            Assertions.assertEquals(rebuilt.getZobristKey(), game.getBoard().getZobristKey());
+            Assertions.assertEquals(rebuilt, game.getBoard());
+            Assertions.assertEquals(rebuilt.hashCode(), game.getBoard().hashCode());
+            moves.clear();
+            MoveGenerator.generateLegal(game.getBoard(), game.getTeamTurn().ordinal(), moves);
+            if(moves.isEmpty()){
+                break;
+            }
+            game.makeMove(moves.get(random.nextInt(moves.size())));
+        }
+        while(game.getUndoDepth() > 0){
+            game.unmakeMove();
+        }
+        Assertions.assertEquals(startKey, game.getZobristKey());
+    }
+
+    @Test
+    @DisplayName("Key Covers Side To Move")
+    public void sideToMove() throws InvalidMoveException {
+        var knightsOut = new ChessGame();
+        knightsOut.makeMove(new ChessMove(new ChessPosition(1, 2), new ChessPosition(3, 3), null));
+        knightsOut.makeMove(new ChessMove(new ChessPosition(8, 2), new ChessPosition(6, 3), null));
+        knightsOut.makeMove(new ChessMove(new ChessPosition(3, 3), new ChessPosition(1, 2), null));
+        knightsOut.makeMove(new ChessMove(new ChessPosition(6, 3), new ChessPosition(8, 2), null));
+
+        var fresh = new ChessGame();
+        Assertions.assertEquals(fresh.getZobristKey(), knightsOut.getZobristKey());
+        Assertions.assertEquals(fresh, knightsOut);
+
+        fresh.setTeamTurn(ChessGame.TeamColor.BLACK);
+        Assertions.assertEquals(knightsOut.getBoard(), fresh.getBoard());
+        Assertions.assertNotEquals(knightsOut.getZobristKey(), fresh.getZobristKey());
+        Assertions.assertNotEquals(knightsOut, fresh);
+    }
+}
@@ -0,0 +1,164 @@
+package chess.engine;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.ChessPiece;
+import chess.Fen;
+import chess.MoveGenerator;
+import chess.MoveList;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.SplittableRandom;
+
+public class EvaluatorTests {
+
+    @Test
+    @DisplayName("Incremental Score Matches A Fresh Evaluation")
+    public void incrementalMatchesFull() {
+        var random = new SplittableRandom(7);
+        var moves = new MoveList();
+        for(var fen : new String[]{Fen.START, "4k3/1P6/8/8/8/8/6p1/4K2R w - - 0 1"}){
+            var game = Fen.parse(fen);
+            var incremental = new Evaluator(EvalWeights.DEFAULT);
+            var full = new Evaluator(EvalWeights.DEFAULT);
+            incremental.reset(game.getBoard());
+            int[] scores = new int[120];
+            int played = 0;
+            for(; played < scores.length; played++){
+                moves.clear();
+                MoveGenerator.generateLegal(game.getBoard(), game.getTeamTurn().ordinal(), moves);
+                if(moves.isEmpty()){
+                    break;
+                }
+                scores[played] = incremental.evaluate(0);
+                int move = moves.get(random.nextInt(moves.size()));
+                incremental.makeMove(game.getBoard(), move);
+                game.makeMove(move);
+                full.reset(game.getBoard());
+                Assertions.assertEquals(full.evaluate(0), incremental.evaluate(0));
+                Assertions.assertEquals(full.getPhase(), incremental.getPhase());
+            }
+            while(played-- > 0){
+                game.unmakeMove();
+                incremental.unmakeMove();
+                Assertions.assertEquals(scores[played], incremental.evaluate(0), "Score restored on unmake");
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Scores Are Symmetric And Tapered")
+    public void symmetricAndTapered() {
+        var evaluator = new Evaluator(EvalWeights.DEFAULT);
+        evaluator.reset(new ChessGame().getBoard());
+        Assertions.assertEquals(0, evaluator.evaluate(0));
+        Assertions.assertEquals(EvalWeights.DEFAULT.getMaxPhase(), evaluator.getPhase());
+
+        // lone rook: pure endgame weights
+        evaluator.reset(Fen.parse("4k3/8/8/8/8/8/8/R3K3 w - - 0 1").getBoard());
+        int rook = EvalWeights.DEFAULT.getEndgameValue(ChessPiece.PieceType.ROOK)
+                + EvalWeights.DEFAULT.getEndgameBonus(ChessPiece.PieceType.ROOK, 0);
+        int kings = EvalWeights.DEFAULT.getEndgameBonus(ChessPiece.PieceType.KING, 4)
+                - EvalWeights.DEFAULT.getEndgameBonus(ChessPiece.PieceType.KING, 60 ^ 56);
+        Assertions.assertEquals(2, evaluator.getPhase());
+        int white = evaluator.evaluate(0);
+        Assertions.assertEquals(-white, evaluator.evaluate(1));
+        Assertions.assertTrue(white > 0 && white < rook + kings + 10);
+
+        evaluator.reset(Fen.parse("r3k3/8/8/8/8/8/8/4K3 b - - 0 1").getBoard());
+        Assertions.assertEquals(white, evaluator.evaluate(1), "Mirrored position scores the same for black");
+    }
+
+    @Test
+    @DisplayName("Weights Round Trip Through The File Format")
+    public void weightsFile() throws IOException {
+        var text = EvalWeights.DEFAULT.toString();
+        Assertions.assertEquals(text, EvalWeights.parse(new StringReader(text)).toString());
+
+        var tuned = EvalWeights.parse(new StringReader("""
+                # only the knight changes
+                knight.value 300 250
+                knight.phase 2
+                """));
+        Assertions.assertEquals(300, tuned.getMiddlegameValue(ChessPiece.PieceType.KNIGHT));
+        Assertions.assertEquals(250, tuned.getEndgameValue(ChessPiece.PieceType.KNIGHT));
+        Assertions.assertEquals(2, tuned.getPhase(ChessPiece.PieceType.KNIGHT));
+        Assertions.assertEquals(EvalWeights.DEFAULT.getMiddlegameValue(ChessPiece.PieceType.QUEEN),
+                tuned.getMiddlegameValue(ChessPiece.PieceType.QUEEN));
+
+        var squares = new StringBuilder("pawn.middlegame\n");
+        for(int i = 0; i < 64; i++){
+            squares.append(i).append(' ');
+        }
+        var pawns = EvalWeights.parse(new StringReader(squares.toString()));
+        Assertions.assertEquals(0, pawns.getMiddlegameBonus(ChessPiece.PieceType.PAWN, 56), "Row 8 comes first");
+        Assertions.assertEquals(63, pawns.getMiddlegameBonus(ChessPiece.PieceType.PAWN, 7));
+
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> EvalWeights.parse(new StringReader("knight.value 300")));
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> EvalWeights.parse(new StringReader("dragon.value 1 2")));
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> EvalWeights.parse(new StringReader("12 knight.phase 1")));
+    }
+
+    @Test
+    @DisplayName("Tuned Phases Taper Between The Start And A Bare Endgame")
+    public void tunedPhases() throws IOException {
+        var weights = EvalWeights.parse(new StringReader("""
+                queen.phase 1
+                rook.phase 1
+                bishop.phase 1
+                knight.phase 1
+                """));
+        Assertions.assertEquals(14, weights.getMaxPhase());
+        var evaluator = new Evaluator(weights);
+
+        var opening = Fen.parse("rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b - - 0 1").getBoard();
+        evaluator.reset(opening);
+        Assertions.assertEquals(14, evaluator.getPhase());
+        Assertions.assertEquals(sum(weights, opening, true), evaluator.evaluate(0), "Start is pure middlegame");
+
+        var pawnEnding = Fen.parse("4k3/8/8/8/8/8/4P3/4K3 w - - 0 1").getBoard();
+        evaluator.reset(pawnEnding);
+        Assertions.assertEquals(0, evaluator.getPhase());
+        Assertions.assertEquals(sum(weights, pawnEnding, false), evaluator.evaluate(0), "K+P vs K is pure endgame");
+
+        Assertions.assertThrows(IllegalArgumentException.class, () -> EvalWeights.parse(new StringReader("""
+                queen.phase 0
+                rook.phase 0
+                bishop.phase 0
+                knight.phase 0
+                """)));
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> EvalWeights.parse(new StringReader("knight.phase -1")));
+    }
+
+    @Test
+    @DisplayName("Search Uses The Weights It Is Given")
+    public void searchUsesWeights() throws IOException {
+        var game = Fen.parse("4k3/8/8/8/8/8/P7/N3K3 w - - 0 1");
+        var plain = new Search(new TranspositionTable(1)).search(game, SearchLimits.depth(1));
+        var heavy = new Search(new TranspositionTable(1), EvalWeights.parse(new StringReader("knight.value 2000 2000")))
+                .search(game, SearchLimits.depth(1));
+        Assertions.assertTrue(heavy.getScore() > plain.getScore() + 1000);
+    }
+
+    /**
+     * @return the middlegame or endgame score of a board alone, from white's side
+     */
+    private static int sum(EvalWeights weights, ChessBoard board, boolean middlegame) {
+        int score = 0;
+        for(int square = 0; square < 64; square++){
+            int code = board.pieceAt(square);
+            if(code != ChessBoard.EMPTY){
+                score += middlegame ? weights.middlegame(code, square) : weights.endgame(code, square);
+            }
+        }
+        return score;
+    }
+}
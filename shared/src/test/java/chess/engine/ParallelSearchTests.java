@@ -0,0 +1,104 @@
+package chess.engine;
+
+import chess.ChessGame;
+import chess.Fen;
+import chess.Move;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public class ParallelSearchTests {
+
+    @ParameterizedTest
+    @EnumSource(ParallelSearch.ThreadKind.class)
+    @DisplayName("Helpers Find The Same Mate")
+    public void findsMate(ParallelSearch.ThreadKind kind) {
+        var game = Fen.parse("7k/8/5K2/8/8/8/8/6R1 w - - 0 1");
+        var search = new ParallelSearch(4, kind, new TranspositionTable(4));
+        var result = search.search(game, SearchLimits.depth(6));
+        Assertions.assertEquals(2, result.getMateIn(), result.toString());
+        Assertions.assertEquals(new ChessGame(game), game);
+    }
+
+    @Test
+    @DisplayName("One Thread Matches A Plain Search")
+    public void singleThreadFallback() {
+        var game = Fen.parse("r1bqkbnr/pppp1ppp/2n5/4p3/4P3/5N2/PPPP1PPP/RNBQKB1R w - - 2 3");
+        var parallel = new ParallelSearch(1, ParallelSearch.ThreadKind.PLATFORM, new TranspositionTable(4))
+                .search(game, SearchLimits.depth(5));
+        var plain = new Search(new TranspositionTable(4)).search(game, SearchLimits.depth(5));
+        Assertions.assertEquals(plain.getPrincipalVariation(), parallel.getPrincipalVariation());
+        Assertions.assertEquals(plain.getScore(), parallel.getScore());
+        Assertions.assertEquals(plain.getNodes(), parallel.getNodes());
+    }
+
+    @Test
+    @DisplayName("Stop Ends A Search From Another Thread")
+    public void stop() throws InterruptedException {
+        var search = new ParallelSearch(3);
+        var firstIteration = new CountDownLatch(1);
+        var done = new CountDownLatch(1);
+        var result = new SearchResult[1];
+        var thread = new Thread(() -> {
+            result[0] = search.search(new ChessGame(), SearchLimits.none(), iteration -> firstIteration.countDown());
+            done.countDown();
+        });
+        thread.start();
+        Assertions.assertTrue(firstIteration.await(10, TimeUnit.SECONDS));
+        search.stop();
+        Assertions.assertTrue(done.await(10, TimeUnit.SECONDS), "Search should stop promptly");
+        Assertions.assertNotNull(result[0].getBestMove());
+        Assertions.assertTrue(new ChessGame().validMoves(result[0].getBestMove().getStartPosition())
+                .contains(result[0].getBestMove()), Move.toString(Move.fromChessMove(result[0].getBestMove())));
+    }
+
+    @Test
+    @DisplayName("A Stop Sent Before The Search Starts Is Kept")
+    public void pendingStop() {
+        var search = new ParallelSearch(2);
+        search.stop();
+        var result = search.search(new ChessGame(), SearchLimits.none());
+        Assertions.assertEquals(1, result.getDepth(), "Only the first iteration, which always finishes");
+        Assertions.assertNotNull(result.getBestMove());
+
+        search.stop();
+        search.reset();
+        Assertions.assertEquals(4, search.search(new ChessGame(), SearchLimits.depth(4)).getDepth());
+    }
+
+    @Test
+    @DisplayName("Helpers Search Different Trees And Save The Main Search Work")
+    public void helpersSaveWork() {
+        var game = Fen.parse("r1bqkbnr/pppp1ppp/2n5/4p3/4P3/5N2/PPPP1PPP/RNBQKB1R w - - 2 3");
+        var stopped = new AtomicBoolean();
+        var alone = new TranspositionTable(1);
+        alone.newSearch();
+        var mainAlone = new Search(alone, EvalWeights.DEFAULT, stopped, false, false, 1, 0);
+        mainAlone.search(game, SearchLimits.depth(5));
+
+        // the helpers run before the main search so the result does not depend on scheduling
+        var shared = new TranspositionTable(1);
+        shared.newSearch();
+        Set<Long> nodeCounts = new HashSet<>();
+        for(int i = 0; i < 3; i++){
+            var helper = ParallelSearch.helper(shared, EvalWeights.DEFAULT, stopped, i);
+            helper.search(game, SearchLimits.depth(5));
+            nodeCounts.add(helper.getNodes());
+        }
+        var helped = new Search(shared, EvalWeights.DEFAULT, stopped, false, false, 1, 0);
+        helped.search(game, SearchLimits.depth(5));
+        nodeCounts.add(mainAlone.getNodes());
+
+        Assertions.assertEquals(4, nodeCounts.size(), "Every thread searches a different tree");
+        Assertions.assertTrue(helped.getNodes() < mainAlone.getNodes() / 2,
+                helped.getNodes() + " vs " + mainAlone.getNodes());
+    }
+}
@@ -0,0 +1,78 @@
+package chess.engine;
+
+import chess.Fen;
+import chess.Move;
+import chess.MoveGenerator;
+import chess.MoveList;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class QuiescenceTests {
+
+    @Test
+    @DisplayName("Static Exchange Scores Captures")
+    public void staticExchange() {
+        // pawn takes an undefended knight
+        var board = Fen.parse("4k3/8/8/3n4/4P3/8/8/4K3 w - - 0 1").getBoard();
+        Assertions.assertEquals(320, StaticExchange.evaluate(board, Move.parse("e4d5")));
+
+        // queen takes a pawn defended by a pawn
+        board = Fen.parse("4k3/8/2p5/3p4/8/8/8/3QK3 w - - 0 1").getBoard();
+        Assertions.assertEquals(100 - 900, StaticExchange.evaluate(board, Move.parse("d1d5")));
+        Assertions.assertFalse(StaticExchange.isAtLeast(board, Move.parse("d1d5"), 0));
+
+        // rook takes a rook-defended rook, backed by a second rook behind it on the file
+        board = Fen.parse("3rk3/8/8/3r4/8/8/3R4/3RK3 w - - 0 1").getBoard();
+        Assertions.assertEquals(500, StaticExchange.evaluate(board, Move.parse("d2d5")));
+
+        // black stops rather than recapture a pawn with the queen into a defended square
+        board = Fen.parse("4k3/3q4/8/3p4/4P3/5B2/8/4K3 w - - 0 1").getBoard();
+        Assertions.assertEquals(100, StaticExchange.evaluate(board, Move.parse("e4d5")));
+
+        // the bishop behind the knight keeps the king from taking back
+        board = Fen.parse("8/8/8/3k4/4p3/5N2/8/4K2B w - - 0 1").getBoard();
+        Assertions.assertEquals(100, StaticExchange.evaluate(board, Move.parse("f3e4")));
+    }
+
+    @Test
+    @DisplayName("Orders Good Captures, Killers, Quiet Moves, Then Losing Captures")
+    public void ordering() {
+        var board = Fen.parse("4k3/8/2p5/1n1p4/8/2N5/8/3QK3 w - - 0 1").getBoard();
+        var moves = new MoveList();
+        MoveGenerator.generateLegal(board, 0, moves);
+        var orderer = new MoveOrderer(4);
+        orderer.newSearch();
+        int killer = Move.parse("e1f2");
+        orderer.recordCutoff(board, killer, 1, 3);
+        orderer.score(board, moves, 1, Move.NONE);
+        List<String> ordered = new ArrayList<>();
+        for(int i = 0; i < moves.size(); i++){
+            ordered.add(Move.toString(orderer.next(moves, 1, i)));
+        }
+
+        Assertions.assertEquals(List.of("c3b5", "e1f2"), ordered.subList(0, 2), "Winning capture, then the killer");
+        Assertions.assertEquals(List.of("c3d5", "d1d5"), ordered.subList(moves.size() - 2, moves.size()),
+                "Captures of a defended pawn last, least valuable attacker first");
+        Assertions.assertTrue(orderer.scoreAt(1, moves.size() - 2) < 0);
+        Assertions.assertTrue(orderer.scoreAt(1, moves.size() - 3) >= 0);
+
+        orderer.score(board, moves, 1, Move.parse("d1d5"));
+        Assertions.assertEquals(Move.parse("d1d5"), orderer.next(moves, 1, 0), "Preferred move comes first");
+        Assertions.assertTrue(MoveOrderer.mvvLva(board, Move.parse("c3b5")) > MoveOrderer.mvvLva(board, Move.parse("c3d5")));
+    }
+
+    @Test
+    @DisplayName("Does Not Stop Searching Mid Exchange")
+    public void quietScores() {
+        // at depth 1 a search that stopped after the capture would take the pawn
+        var game = Fen.parse("4k3/8/2p5/3p4/8/8/8/3QK3 w - - 0 1");
+        var result = new Search(new TranspositionTable(1)).search(game, SearchLimits.depth(1));
+        Assertions.assertNotEquals("d1d5", Move.toString(Move.fromChessMove(result.getBestMove())), result.toString());
+        Assertions.assertTrue(result.getScore() > 500, result.toString());
+        Assertions.assertEquals("4k3/8/2p5/3p4/8/8/8/3QK3 w - - 0 1", Fen.write(game), "The caller's game is untouched");
+    }
+}
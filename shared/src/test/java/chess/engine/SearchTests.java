@@ -0,0 +1,91 @@
+package chess.engine;
+
+import chess.ChessGame;
+import chess.Fen;
+import chess.Move;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class SearchTests {
+
+    @Test
+    @DisplayName("Finds Mate In One")
+    public void mateInOne() {
+        var result = new Search().search(Fen.parse("6k1/5ppp/8/8/8/8/8/R5K1 w - - 0 1"), SearchLimits.depth(4));
+        Assertions.assertEquals("a1a8", move(result));
+        Assertions.assertTrue(result.isMate());
+        Assertions.assertEquals(1, result.getMateIn());
+    }
+
+    @Test
+    @DisplayName("Finds Mate In Two")
+    public void mateInTwo() {
+        // 1. Kf7 Kh7 2. Rh1#
+        var game = Fen.parse("7k/8/5K2/8/8/8/8/6R1 w - - 0 1");
+        var result = new Search().search(game, SearchLimits.depth(5));
+        Assertions.assertEquals(2, result.getMateIn(), result.toString());
+        Assertions.assertEquals(3, result.getPrincipalVariation().size());
+        Assertions.assertEquals(new ChessGame(game), game, "The caller's game should be untouched");
+    }
+
+    @Test
+    @DisplayName("Takes A Free Queen")
+    public void freeQueen() {
+        var result = new Search().search(Fen.parse("4k3/8/8/3q4/8/8/3R4/4K3 w - - 0 1"), SearchLimits.depth(3));
+        Assertions.assertEquals("d2d5", move(result));
+        Assertions.assertTrue(result.getScore() > 300, result.toString());
+    }
+
+    @Test
+    @DisplayName("Reports Mated And Stalemated Roots")
+    public void noMoves() {
+        var mated = new Search().search(Fen.parse("R5k1/5ppp/8/8/8/8/8/6K1 b - - 0 1"), SearchLimits.depth(3));
+        Assertions.assertNull(mated.getBestMove());
+        Assertions.assertEquals(-Search.MATE, mated.getScore());
+        var stalemate = new Search().search(Fen.parse("k7/2Q5/1K6/8/8/8/8/8 b - - 0 1"), SearchLimits.depth(3));
+        Assertions.assertNull(stalemate.getBestMove());
+        Assertions.assertEquals(0, stalemate.getScore());
+    }
+
+    @Test
+    @DisplayName("Stops At The Node Limit With A Legal Move")
+    public void nodeLimit() {
+        var game = new ChessGame();
+        List<SearchResult> iterations = new ArrayList<>();
+        var result = new Search().search(game, SearchLimits.nodes(20_000), iterations::add);
+        Assertions.assertFalse(iterations.isEmpty());
+        Assertions.assertTrue(result.getNodes() <= 20_000 || result.getDepth() == 1, result.toString());
+        Assertions.assertEquals(iterations.get(iterations.size() - 1).getBestMove(), result.getBestMove());
+        Assertions.assertTrue(game.validMoves(result.getBestMove().getStartPosition()).contains(result.getBestMove()));
+    }
+
+    @Test
+    @DisplayName("Repeated Searches Give The Same Answer")
+    public void deterministic() {
+        var game = Fen.parse("r1bqkbnr/pppp1ppp/2n5/4p3/4P3/5N2/PPPP1PPP/RNBQKB1R w - - 2 3");
+        var first = new Search().search(game, SearchLimits.depth(4));
+        var second = new Search().search(game, SearchLimits.depth(4));
+        Assertions.assertEquals(first.getPrincipalVariation(), second.getPrincipalVariation());
+        Assertions.assertEquals(first.getScore(), second.getScore());
+        Assertions.assertEquals(first.getNodes(), second.getNodes());
+    }
+
+    @Test
+    @DisplayName("A Warm Transposition Table Saves Work")
+    public void warmTable() {
+        var game = Fen.parse("r1bqkbnr/pppp1ppp/2n5/4p3/4P3/5N2/PPPP1PPP/RNBQKB1R w - - 2 3");
+        var search = new Search(new TranspositionTable(4));
+        var cold = search.search(game, SearchLimits.depth(5));
+        var warm = search.search(game, SearchLimits.depth(5));
+        Assertions.assertTrue(warm.getNodes() < cold.getNodes(), cold + " / " + warm);
+        Assertions.assertEquals(cold.getBestMove(), warm.getBestMove());
+    }
+
+    private static String move(SearchResult result) {
+        return Move.toString(Move.fromChessMove(result.getBestMove()));
+    }
+}
@@ -0,0 +1,85 @@
+package chess.engine;
+
+import chess.Move;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class TranspositionTableTests {
+
+    @Test
+    @DisplayName("Stores And Reads Back Entries")
+    public void storeAndProbe() {
+        var table = new TranspositionTable(1);
+        Assertions.assertEquals(1024 * 1024 / 16, table.capacity());
+        long key = 0x123456789ABCDEFL;
+        Assertions.assertEquals(0L, table.probe(key));
+        table.store(key, Move.parse("e7e8q"), -31990, 12, TranspositionTable.LOWER);
+        long data = table.probe(key);
+        Assertions.assertEquals(Move.parse("e7e8q"), TranspositionTable.move(data));
+        Assertions.assertEquals(-31990, TranspositionTable.score(data));
+        Assertions.assertEquals(12, TranspositionTable.depth(data));
+        Assertions.assertEquals(TranspositionTable.LOWER, TranspositionTable.bound(data));
+        Assertions.assertEquals(0L, table.probe(key ^ 1));
+        table.clear();
+        Assertions.assertEquals(0L, table.probe(key));
+    }
+
+    @Test
+    @DisplayName("Deep Entries Survive Shallow Ones")
+    public void depthPreferred() {
+        var table = new TranspositionTable(1);
+        int buckets = table.capacity() / 2;
+        long deep = 5;
+        long shallow = deep + buckets;
+        long newer = deep + 2L * buckets;
+        table.store(deep, 1, 10, 8, TranspositionTable.EXACT);
+        table.store(shallow, 2, 20, 2, TranspositionTable.EXACT);
+        table.store(newer, 3, 30, 1, TranspositionTable.EXACT);
+        Assertions.assertEquals(8, TranspositionTable.depth(table.probe(deep)), "Deepest entry kept");
+        Assertions.assertEquals(0L, table.probe(shallow), "Always-replace slot was overwritten");
+        Assertions.assertEquals(1, TranspositionTable.depth(table.probe(newer)));
+
+        table.newSearch();
+        table.store(shallow, 2, 20, 2, TranspositionTable.EXACT);
+        Assertions.assertEquals(0L, table.probe(deep), "Entries from an older search give way");
+        Assertions.assertEquals(2, TranspositionTable.depth(table.probe(shallow)));
+    }
+
+    @Test
+    @DisplayName("Concurrent Writers Never Produce A Wrong Entry")
+    public void concurrentWriters() throws InterruptedException {
+        var table = new TranspositionTable(1);
+        int slots = 64;
+        var mismatches = new AtomicInteger();
+        Thread[] threads = new Thread[4];
+        for(int t = 0; t < threads.length; t++){
+            int seed = t;
+            threads[t] = new Thread(() -> {
+                var random = new SplittableRandom(seed);
+                for(int i = 0; i < 200_000; i++){
+                    // few distinct buckets, so threads keep colliding
+                    long key = random.nextLong() & ~(long) (table.capacity() / 2 - 1) | random.nextInt(slots);
+                    int check = (int) (key >>> 48);
+                    if(random.nextBoolean()){
+                        table.store(key, check, check >> 1, check & 0xFF, TranspositionTable.EXACT);
+                    } else {
+                        long data = table.probe(key);
+                        if(data != 0 && (TranspositionTable.move(data) != check
+                                || TranspositionTable.score(data) != check >> 1)){
+                            mismatches.incrementAndGet();
+                        }
+                    }
+                }
+            });
+            threads[t].start();
+        }
+        for(var thread : threads){
+            thread.join();
+        }
+        Assertions.assertEquals(0, mismatches.get());
+    }
+}